@@ -123,6 +123,18 @@ public class Triage {
         );
     }
 
+    /**
+     * Prioridade antecipada durante a análise; a triagem continua em processamento até o resultado completo.
+     */
+    public Triage withProvisionalPriority(PriorityLevel priorityLevel) {
+        return new Triage(
+                this.id, this.patientId, this.symptoms, priorityLevel, this.aiRecommendation,
+                this.observations, this.createdAt, LocalDateTime.now(), this.processed, this.status,
+                this.processingStartedAt, this.processingCompletedAt, this.errorMessage, this.retryCount,
+                this.confidenceScore, this.rawAiResponse
+        );
+    }
+
     public Triage withError(String errorMessage) {
         LocalDateTime now = LocalDateTime.now();
 
@@ -26,4 +26,17 @@ public enum PriorityLevel {
     public boolean requiresFastAttention() {
         return maxWaitTimeMinutes <= 60;
     }
+
+    public static PriorityLevel fromLevel(Integer level) {
+        if (level == null) {
+            return URGENT;
+        }
+
+        for (PriorityLevel priority : values()) {
+            if (priority.level.equals(level)) {
+                return priority;
+            }
+        }
+        return level < EMERGENCY.level ? EMERGENCY : NON_URGENT;
+    }
 }
\ No newline at end of file
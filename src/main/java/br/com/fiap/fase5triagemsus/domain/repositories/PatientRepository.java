@@ -4,6 +4,8 @@ package br.com.fiap.fase5triagemsus.domain.repositories;
 import br.com.fiap.fase5triagemsus.domain.entities.Patient;
 import br.com.fiap.fase5triagemsus.domain.valueobjects.PatientId;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -11,6 +13,7 @@ public interface PatientRepository {
 
     Patient save(Patient patient);
     Optional<Patient> findById(PatientId id);
+    List<Patient> findAllById(Collection<PatientId> ids);
     Optional<Patient> findByCpf(String cpf);
     boolean existsByCpf(String cpf);
     void delete(Patient patient);
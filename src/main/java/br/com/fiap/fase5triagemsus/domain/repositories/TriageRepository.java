@@ -14,6 +14,7 @@ public interface TriageRepository {
 
 
     Triage save(Triage triage);
+    List<Triage> insertAll(List<Triage> triages);
     Optional<Triage> findById(TriageId id);
     List<Triage> findByPatientId(PatientId patientId);
     List<Triage> findByPriority(PriorityLevel priority);
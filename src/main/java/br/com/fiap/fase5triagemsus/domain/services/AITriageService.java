@@ -3,20 +3,44 @@ package br.com.fiap.fase5triagemsus.domain.services;
 
 import br.com.fiap.fase5triagemsus.domain.entities.Patient;
 import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface AITriageService {
 
 
     TriageAnalysisResult analyzeTriageSituation(Triage triage, Patient patient);
 
+    /**
+     * Mesma análise sem ocupar a thread chamadora enquanto a IA responde.
+     */
+    CompletableFuture<TriageAnalysisResult> analyzeTriageSituationAsync(Triage triage, Patient patient);
+
+    /**
+     * Como {@link #analyzeTriageSituationAsync(Triage, Patient)}, avisando {@code onPriority} assim que a
+     * prioridade for conhecida, antes de recomendação e justificativa. Implementações que não antecipam
+     * só entregam o resultado completo.
+     */
+    default CompletableFuture<TriageAnalysisResult> analyzeTriageSituationAsync(Triage triage, Patient patient,
+                                                                               Consumer<PriorityLevel> onPriority) {
+        return analyzeTriageSituationAsync(triage, patient);
+    }
+
 
     record TriageAnalysisResult(
             br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel priority,
             String recommendation,
             String reasoning,
-            Double confidenceScore
+            Double confidenceScore,
+            boolean fallback
     ) {
+        public TriageAnalysisResult(br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel priority,
+                                    String recommendation, String reasoning, Double confidenceScore) {
+            this(priority, recommendation, reasoning, confidenceScore, false);
+        }
+
         public TriageAnalysisResult {
             if (priority == null) {
                 throw new IllegalArgumentException("Prioridade é obrigatória");
@@ -1,8 +1,10 @@
 package br.com.fiap.fase5triagemsus.domain.valueobjects;
 
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
 import lombok.Value;
 import lombok.Builder;
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
@@ -92,6 +94,22 @@ public class QueueMessage {
                 .build();
     }
 
+    public QueueMessage withPriority(Integer newPriority) {
+        return QueueMessage.builder()
+                .triageId(this.triageId)
+                .patientId(this.patientId)
+                .symptoms(this.symptoms)
+                .patientAge(this.patientAge)
+                .patientWeight(this.patientWeight)
+                .patientHeight(this.patientHeight)
+                .preExistingConditions(this.preExistingConditions)
+                .createdAt(this.createdAt)
+                .priority(newPriority)
+                .retryCount(this.retryCount)
+                .lastRetryAt(this.lastRetryAt)
+                .build();
+    }
+
     public boolean canRetry(int maxRetries) {
         return this.retryCount < maxRetries;
     }
@@ -100,6 +118,11 @@ public class QueueMessage {
         return this.priority <= 2;
     }
 
+    @JsonIgnore
+    public PriorityLevel getPriorityLevel() {
+        return PriorityLevel.fromLevel(this.priority);
+    }
+
     public long getRetryDelaySeconds() {
         return Math.min(300, (long) Math.pow(2, this.retryCount) * 10); // Max 5 minutos
     }
@@ -0,0 +1,146 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.batching;
+
+import br.com.fiap.fase5triagemsus.domain.entities.Patient;
+import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.services.AITriageService.TriageAnalysisResult;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.prompts.TriagePromptBuilder.BatchItem;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.services.AiProviderRouter;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.services.GeminiAITriageService;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.QueueProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Agrupa as triagens não urgentes que chegam à IA em lotes de até {@code triage.queue.ai-batch-size},
+ * enviados numa única chamada quando o lote enche ou quando a primeira triagem espera
+ * {@code triage.queue.ai-batch-linger-ms}. Casos suspeitos de emergência nunca esperam lote.
+ */
+@Slf4j
+@Component
+public class TriageBatcher {
+
+    private final AiProviderRouter router;
+    private final QueueProperties queueProperties;
+    private final DistributionSummary batchSize;
+    private final Counter analyzed;
+    private final Counter fallback;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private List<Pending> pending = new ArrayList<>();
+    private Disposable lingerTimer;
+
+    public TriageBatcher(AiProviderRouter router, QueueProperties queueProperties, MeterRegistry meterRegistry) {
+        this.router = router;
+        this.queueProperties = queueProperties;
+        this.batchSize = DistributionSummary.builder("triage.ai.batch.size")
+                .description("Triagens por chamada em lote à IA")
+                .register(meterRegistry);
+        this.analyzed = items(meterRegistry, "analyzed");
+        this.fallback = items(meterRegistry, "fallback");
+    }
+
+    /**
+     * Se a triagem pode esperar um lote: agrupamento ativo e nenhum indício de emergência.
+     */
+    public boolean accepts(Triage triage) {
+        return queueProperties.getAiBatchSize() > 1 && !GeminiAITriageService.isSuspectedEmergency(triage);
+    }
+
+    public CompletableFuture<TriageAnalysisResult> submit(Triage triage, Patient patient) {
+        Pending item = new Pending(new BatchItem(triage, patient), new CompletableFuture<>());
+        List<Pending> full = null;
+
+        lock.lock();
+        try {
+            pending.add(item);
+            if (pending.size() >= queueProperties.getAiBatchSize()) {
+                full = drain();
+            } else if (pending.size() == 1) {
+                lingerTimer = Mono.delay(Duration.ofMillis(queueProperties.getAiBatchLingerMs()))
+                        .subscribe(tick -> flushExpired());
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (full != null) {
+            dispatch(full);
+        }
+        return item.result();
+    }
+
+    private void flushExpired() {
+        List<Pending> batch;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = drain();
+        } finally {
+            lock.unlock();
+        }
+        dispatch(batch);
+    }
+
+    // Chamado com o lock; um timer que já disparou pode enviar o lote seguinte antes da hora, sem prejuízo
+    private List<Pending> drain() {
+        List<Pending> batch = pending;
+        pending = new ArrayList<>(queueProperties.getAiBatchSize());
+        if (lingerTimer != null) {
+            lingerTimer.dispose();
+            lingerTimer = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(List<Pending> batch) {
+        batchSize.record(batch.size());
+
+        // Sozinha no lote, a triagem segue pelo prompt individual
+        if (batch.size() == 1) {
+            Pending single = batch.get(0);
+            router.analyzeTriageSituationAsync(single.item().triage(), single.item().patient())
+                    .whenComplete((result, error) -> complete(single, result, error));
+            return;
+        }
+
+        log.debug("Enviando lote de {} triagens à IA", batch.size());
+        router.analyzeBatch(batch.stream().map(Pending::item).toList())
+                .subscribe(results -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        complete(batch.get(i), results.get(i), null);
+                    }
+                }, error -> batch.forEach(item -> complete(item, null, error)));
+    }
+
+    private void complete(Pending item, TriageAnalysisResult result, Throwable error) {
+        if (error != null) {
+            item.result().completeExceptionally(error);
+            return;
+        }
+        (result.fallback() ? fallback : analyzed).increment();
+        item.result().complete(result);
+    }
+
+    private static Counter items(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("triage.ai.batch.items")
+                .description("Triagens enviadas em lote à IA, por resultado da análise")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Pending(BatchItem item, CompletableFuture<TriageAnalysisResult> result) {
+    }
+}
@@ -0,0 +1,230 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.cache;
+
+import br.com.fiap.fase5triagemsus.domain.services.AITriageService.TriageAnalysisResult;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiCacheProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight das análises por fingerprint.
+ * <ul>
+ *     <li>No nó, chamadas simultâneas recebem a mesma future da primeira.</li>
+ *     <li>Entre nós, o primeiro a gravar {@code triage:ai:inflight:<fingerprint>} (SET NX com TTL) chama a IA
+ *     e publica o resultado em {@code triage:ai:result:<fingerprint>}; os demais aguardam essa mensagem.</li>
+ * </ul>
+ * Se o líder não obtiver uma análise cacheável (fallback ou erro), publica uma mensagem vazia e cada nó
+ * segue por conta própria, assim como quem esperar mais que coalescing-wait-timeout.
+ * Enquanto a inscrição no Redis não estiver ativa, a coalescência fica restrita ao nó.
+ */
+@Slf4j
+@Component
+public class AnalysisCoalescer {
+
+    private static final String LOCK_PREFIX = "triage:ai:inflight:";
+    private static final String CHANNEL_PREFIX = "triage:ai:result:";
+    private static final String NO_RESULT = "";
+    private static final long SUBSCRIBE_RETRY_INTERVAL_MILLIS = 30_000;
+
+    private static final DefaultRedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    // Ausente com triage.ai.cache.coalescing desligado
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final AiCacheProperties cacheProperties;
+    private final TriageAnalysisCache cache;
+
+    private final Counter localCoalesced;
+    private final Counter remoteCoalesced;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, CompletableFuture<TriageAnalysisResult>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<TriageAnalysisResult>> remoteWaiters = new ConcurrentHashMap<>();
+    private final AtomicLong nextSubscribeAttempt = new AtomicLong();
+
+    public AnalysisCoalescer(StringRedisTemplate stringRedisTemplate, ReactiveStringRedisTemplate reactiveRedisTemplate,
+                             ObjectProvider<RedisMessageListenerContainer> listenerContainer, ObjectMapper objectMapper,
+                             AiCacheProperties cacheProperties, TriageAnalysisCache cache, MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.listenerContainer = listenerContainer.getIfAvailable();
+        this.objectMapper = objectMapper;
+        this.cacheProperties = cacheProperties;
+        this.cache = cache;
+        this.localCoalesced = coalesced(meterRegistry, "local");
+        this.remoteCoalesced = coalesced(meterRegistry, "remote");
+    }
+
+    @PostConstruct
+    void subscribe() {
+        if (listenerContainer != null) {
+            listenerContainer.addMessageListener(this::onResult, new PatternTopic(CHANNEL_PREFIX + "*"));
+        }
+    }
+
+    public CompletableFuture<TriageAnalysisResult> execute(String fingerprint,
+                                                           Supplier<CompletableFuture<TriageAnalysisResult>> loader) {
+        CompletableFuture<TriageAnalysisResult> shared = new CompletableFuture<>();
+        CompletableFuture<TriageAnalysisResult> existing = inFlight.putIfAbsent(fingerprint, shared);
+        if (existing != null) {
+            localCoalesced.increment();
+            return existing;
+        }
+
+        CompletableFuture<TriageAnalysisResult> load;
+        try {
+            load = loadOnce(fingerprint, loader);
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+        load.whenComplete((result, error) -> {
+            inFlight.remove(fingerprint, shared);
+            if (error != null) {
+                shared.completeExceptionally(error);
+            } else {
+                shared.complete(result);
+            }
+        });
+        return shared;
+    }
+
+    private CompletableFuture<TriageAnalysisResult> loadOnce(String fingerprint,
+                                                             Supplier<CompletableFuture<TriageAnalysisResult>> loader) {
+        if (!listening()) {
+            return loader.get();
+        }
+
+        // Registrado antes do SET NX para não perder uma publicação que chegue logo depois
+        CompletableFuture<TriageAnalysisResult> waiter = new CompletableFuture<>();
+        remoteWaiters.put(fingerprint, waiter);
+
+        if (tryLock(fingerprint)) {
+            remoteWaiters.remove(fingerprint, waiter);
+            return loader.get().whenComplete((result, error) ->
+                    publish(fingerprint, error == null && !result.fallback() ? result : null));
+        }
+
+        // Outro nó está analisando; o resultado pode já estar no Redis se a publicação veio antes do registro
+        cache.peekShared(fingerprint).ifPresent(waiter::complete);
+
+        return waiter
+                .completeOnTimeout(null, cacheProperties.getCoalescingWaitTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> remoteWaiters.remove(fingerprint, waiter))
+                .thenCompose(result -> {
+                    if (result == null) {
+                        return loader.get();
+                    }
+                    remoteCoalesced.increment();
+                    return CompletableFuture.completedFuture(result);
+                });
+    }
+
+    // Sem a inscrição o nó não receberia o resultado do líder; tenta (re)inscrever no máximo a cada 30s
+    private boolean listening() {
+        if (listenerContainer == null) {
+            return false;
+        }
+        if (listenerContainer.isListening()) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        long next = nextSubscribeAttempt.get();
+        if (now < next || !nextSubscribeAttempt.compareAndSet(next, now + SUBSCRIBE_RETRY_INTERVAL_MILLIS)) {
+            return false;
+        }
+        try {
+            // Uma inscrição que falhou deixa o container iniciado, mas sem escutar
+            listenerContainer.stop();
+            listenerContainer.start();
+        } catch (Exception e) {
+            log.warn("Redis indisponível para coalescência entre nós, seguindo só no nó: {}", e.getMessage());
+        }
+        return listenerContainer.isListening();
+    }
+
+    private boolean tryLock(String fingerprint) {
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(LOCK_PREFIX + fingerprint, nodeId, cacheProperties.getCoalescingLockTtl());
+            return Boolean.TRUE.equals(acquired);
+        } catch (Exception e) {
+            // Sem Redis não há coordenação entre nós; segue como líder
+            log.warn("Erro ao adquirir lock de coalescência: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    // Roda na thread que completou a chamada à IA, por isso só usa o template reativo
+    private void publish(String fingerprint, TriageAnalysisResult result) {
+        String payload = NO_RESULT;
+        if (result != null) {
+            try {
+                payload = objectMapper.writeValueAsString(result);
+            } catch (Exception e) {
+                log.warn("Erro ao serializar análise para publicação: {}", e.getMessage());
+            }
+        }
+        reactiveRedisTemplate.convertAndSend(CHANNEL_PREFIX + fingerprint, payload)
+                .thenMany(reactiveRedisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(LOCK_PREFIX + fingerprint),
+                        List.of(nodeId)))
+                .subscribe(released -> { }, error -> log.warn("Erro ao publicar resultado da coalescência: {}",
+                        error.getMessage()));
+    }
+
+    private void onResult(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        String fingerprint = channel.substring(CHANNEL_PREFIX.length());
+        CompletableFuture<TriageAnalysisResult> waiter = remoteWaiters.get(fingerprint);
+        if (waiter == null) {
+            return;
+        }
+
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (NO_RESULT.equals(payload)) {
+            waiter.complete(null);
+            return;
+        }
+        try {
+            TriageAnalysisResult result = objectMapper.readValue(payload, TriageAnalysisResult.class);
+            cache.putLocal(fingerprint, result);
+            waiter.complete(result);
+        } catch (Exception e) {
+            log.warn("Resultado de coalescência inválido para {}: {}", fingerprint, e.getMessage());
+            waiter.complete(null);
+        }
+    }
+
+    private static Counter coalesced(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("triage.ai.coalesced")
+                .description("Análises atendidas por uma chamada à IA já em andamento")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+}
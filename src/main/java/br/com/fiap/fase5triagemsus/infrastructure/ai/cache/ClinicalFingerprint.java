@@ -0,0 +1,84 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.cache;
+
+import br.com.fiap.fase5triagemsus.domain.entities.Patient;
+import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.valueobjects.Symptom;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Impressão digital clínica de uma triagem: duas apresentações com o mesmo fingerprint recebem a mesma
+ * análise. Considera descrição e localização normalizadas (minúsculas, sem acentos e pontuação), a faixa
+ * de intensidade de cada sintoma, a faixa etária e o gênero. A ordem dos sintomas não importa.
+ * As faixas seguem os limites usados no prompt (criança, adolescente, idoso), para que duas triagens
+ * com o mesmo fingerprint gerem prompts clinicamente equivalentes.
+ */
+public final class ClinicalFingerprint {
+
+    // Incrementar ao mudar a normalização, o prompt ou o modelo, para não reaproveitar análises antigas
+    static final String VERSION = "v2";
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    private ClinicalFingerprint() {
+    }
+
+    public static String of(Triage triage, Patient patient) {
+        String symptoms = triage.getSymptoms().stream()
+                .map(ClinicalFingerprint::symptomKey)
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(";"));
+
+        String canonical = String.join("|", VERSION, symptoms, ageBand(patient.getAge()),
+                normalize(patient.getGender()));
+        return sha256(canonical);
+    }
+
+    private static String symptomKey(Symptom symptom) {
+        return normalize(symptom.getDescription()) + "@" + normalize(symptom.getLocation())
+                + "#" + intensityBand(symptom);
+    }
+
+    private static String intensityBand(Symptom symptom) {
+        if (symptom.isSevere()) {
+            return "grave";
+        }
+        return symptom.isModerate() ? "moderado" : "leve";
+    }
+
+    private static String ageBand(int age) {
+        if (age < 2) return "0-1";
+        if (age < 12) return "2-11";
+        if (age < 18) return "12-17";
+        if (age < 40) return "18-39";
+        if (age < 65) return "40-64";
+        if (age < 80) return "65-79";
+        return "80+";
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String withoutAccents = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
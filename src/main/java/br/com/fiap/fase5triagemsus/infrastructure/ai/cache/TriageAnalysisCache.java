@@ -0,0 +1,142 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.cache;
+
+import br.com.fiap.fase5triagemsus.domain.services.AITriageService.TriageAnalysisResult;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiCacheProperties;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.BusinessProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache de análises em dois níveis: Caffeine no processo (W-TinyLFU, limitado por local-max-entries) e
+ * Redis compartilhado entre os nós, ambos com TTL de triage.business.cache-ttl. Um acerto no Redis
+ * também aquece o nível local.
+ */
+@Slf4j
+@Component
+public class TriageAnalysisCache {
+
+    private static final String KEY_PREFIX = "triage:ai:cache:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Cache<String, TriageAnalysisResult> local;
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+    private final Timer loadTimer;
+    private final Counter latencySaved;
+
+    public TriageAnalysisCache(StringRedisTemplate stringRedisTemplate, ReactiveStringRedisTemplate reactiveRedisTemplate,
+                               ObjectMapper objectMapper, AiCacheProperties cacheProperties,
+                               BusinessProperties businessProperties, MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofSeconds(businessProperties.getCacheTtl());
+        this.local = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getLocalMaxEntries())
+                .expireAfterWrite(ttl)
+                .build();
+
+        this.localHits = requests(meterRegistry, "local", "hit");
+        this.redisHits = requests(meterRegistry, "redis", "hit");
+        this.misses = requests(meterRegistry, "none", "miss");
+        this.loadTimer = Timer.builder("triage.ai.cache.load")
+                .description("Latência das análises que não estavam em cache")
+                .register(meterRegistry);
+        this.latencySaved = Counter.builder("triage.ai.cache.latency.saved")
+                .description("Tempo de IA economizado por acertos de cache (estimado pela latência média de carga)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public Optional<TriageAnalysisResult> get(String fingerprint) {
+        TriageAnalysisResult cached = local.getIfPresent(fingerprint);
+        if (cached != null) {
+            onHit(localHits);
+            return Optional.of(cached);
+        }
+
+        try {
+            String json = stringRedisTemplate.opsForValue().get(KEY_PREFIX + fingerprint);
+            if (json != null) {
+                TriageAnalysisResult result = objectMapper.readValue(json, TriageAnalysisResult.class);
+                local.put(fingerprint, result);
+                onHit(redisHits);
+                return Optional.of(result);
+            }
+        } catch (Exception e) {
+            log.warn("Erro ao ler análise do cache Redis: {}", e.getMessage());
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Lê só o Redis, sem contar métricas nem aquecer o nível local.
+     */
+    public Optional<TriageAnalysisResult> peekShared(String fingerprint) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(KEY_PREFIX + fingerprint);
+            return json != null ? Optional.of(objectMapper.readValue(json, TriageAnalysisResult.class)) : Optional.empty();
+        } catch (Exception e) {
+            log.warn("Erro ao ler análise do cache Redis: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void putLocal(String fingerprint, TriageAnalysisResult result) {
+        local.put(fingerprint, result);
+    }
+
+    /**
+     * Grava nos dois níveis. A escrita no Redis é assíncrona: este método roda na thread que completou a
+     * chamada à IA (event loop do WebClient), que não deve esperar por I/O.
+     */
+    public void put(String fingerprint, TriageAnalysisResult result, Duration loadLatency) {
+        loadTimer.record(loadLatency);
+        local.put(fingerprint, result);
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(result);
+        } catch (Exception e) {
+            log.warn("Erro ao serializar análise para cache: {}", e.getMessage());
+            return;
+        }
+        reactiveRedisTemplate.opsForValue()
+                .set(KEY_PREFIX + fingerprint, json, ttl)
+                .subscribe(stored -> { }, error -> log.warn("Erro ao gravar análise no cache Redis: {}", error.getMessage()));
+    }
+
+    private void onHit(Counter hits) {
+        hits.increment();
+        if (loadTimer.count() > 0) {
+            latencySaved.increment(loadTimer.mean(TimeUnit.SECONDS));
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("triage.ai.cache.requests")
+                .description("Consultas ao cache de análises da IA")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
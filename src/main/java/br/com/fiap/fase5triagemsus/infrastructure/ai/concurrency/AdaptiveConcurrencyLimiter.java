@@ -0,0 +1,254 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.concurrency;
+
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiConcurrencyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite adaptativo (AIMD) de chamadas simultâneas à IA. Cada resposta dentro do limite de latência
+ * soma ~1 ao limite por janela; 429, 5xx, timeout ou latência alta multiplicam o limite por backoff-ratio.
+ * Usa {@link ReentrantLock} em vez de synchronized para não prender virtual threads à carrier.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    // Uma rajada de 429 reflete uma única saturação; sem isso o limite despencaria para o mínimo de uma vez
+    private static final long DECREASE_COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AiConcurrencyProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejectedCounter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private final ArrayDeque<CompletableFuture<Permit>> asyncWaiters = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(AiConcurrencyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.limit = clamp(properties.getInitialLimit());
+        this.lastDecreaseNanos = System.nanoTime() - DECREASE_COOLDOWN_NANOS;
+
+        Gauge.builder("triage.ai.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Limite atual de análises simultâneas na IA")
+                .register(meterRegistry);
+        Gauge.builder("triage.ai.concurrency.in.flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Análises em andamento na IA")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("triage.ai.concurrency.rejected")
+                .description("Análises rejeitadas por esgotar a espera por vaga")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Aguarda uma vaga por até acquire-timeout.
+     *
+     * @throws LimitExceededException se nenhuma vaga abrir no prazo
+     */
+    public Permit acquire() {
+        lock.lock();
+        try {
+            long remaining = properties.getAcquireTimeout().toNanos();
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    rejectedCounter.increment();
+                    throw new LimitExceededException(String.format(
+                            "Limite de análises simultâneas atingido (%d em andamento)", inFlight));
+                }
+                remaining = permitReleased.awaitNanos(remaining);
+            }
+            inFlight++;
+            return new Permit();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LimitExceededException("Espera por vaga na IA interrompida");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Versão sem bloqueio de {@link #acquire()}: a vaga é entregue quando uma permissão for liberada
+     * ou o limite crescer. Falha com {@link LimitExceededException} após acquire-timeout. Cancelar a
+     * future devolvida tira o pedido da fila.
+     */
+    public CompletableFuture<Permit> acquireAsync() {
+        CompletableFuture<Permit> waiter;
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(new Permit());
+            }
+            waiter = new CompletableFuture<>();
+            asyncWaiters.add(waiter);
+        } finally {
+            lock.unlock();
+        }
+
+        CompletableFuture<Permit> acquired = waiter
+                .orTimeout(properties.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .handle((permit, error) -> {
+                    if (error == null) {
+                        return permit;
+                    }
+                    if (error instanceof TimeoutException) {
+                        rejectedCounter.increment();
+                        throw new LimitExceededException(String.format(
+                                "Limite de análises simultâneas atingido (%d em andamento)", getInFlight()));
+                    }
+                    throw new LimitExceededException("Espera por vaga na IA cancelada");
+                });
+        acquired.whenComplete((permit, error) -> {
+            if (acquired.isCancelled()) {
+                abandon(waiter);
+            }
+        });
+        return acquired;
+    }
+
+    public void onSuccess(Duration latency) {
+        if (latency.compareTo(properties.getLatencyThreshold()) > 0) {
+            onDropped("latency");
+            return;
+        }
+        List<CompletableFuture<Permit>> granted = List.of();
+        lock.lock();
+        try {
+            // Só cresce quando o limite está de fato sendo usado; ociosidade não prova capacidade
+            if (inFlight * 2 >= limit) {
+                limit = clamp(limit + 1.0 / limit);
+                granted = grantAsyncWaiters();
+                permitReleased.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        completeGranted(granted);
+    }
+
+    public void onDropped(String reason) {
+        meterRegistry.counter("triage.ai.concurrency.dropped", "reason", reason).increment();
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (now - lastDecreaseNanos < DECREASE_COOLDOWN_NANOS) {
+                return;
+            }
+            lastDecreaseNanos = now;
+            double previous = limit;
+            limit = clamp(limit * properties.getBackoffRatio());
+            log.debug("Limite de concorrência da IA reduzido ({}): {} -> {}", reason,
+                    (int) previous, (int) limit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Chamado com o lock; as futures são completadas fora dele para que os callbacks não rodem sob o lock
+    private List<CompletableFuture<Permit>> grantAsyncWaiters() {
+        List<CompletableFuture<Permit>> granted = new ArrayList<>();
+        while (inFlight < (int) limit && !asyncWaiters.isEmpty()) {
+            CompletableFuture<Permit> waiter = asyncWaiters.poll();
+            if (!waiter.isDone()) {
+                inFlight++;
+                granted.add(waiter);
+            }
+        }
+        return granted;
+    }
+
+    // Quem cancelou a future devolvida não vai liberar a vaga; se ela já tinha sido concedida, libera aqui
+    private void abandon(CompletableFuture<Permit> waiter) {
+        if (waiter.cancel(false)) {
+            lock.lock();
+            try {
+                asyncWaiters.remove(waiter);
+            } finally {
+                lock.unlock();
+            }
+        } else if (!waiter.isCompletedExceptionally()) {
+            waiter.join().release();
+        }
+    }
+
+    private void completeGranted(List<CompletableFuture<Permit>> granted) {
+        for (CompletableFuture<Permit> waiter : granted) {
+            Permit permit = new Permit();
+            // O timeout pode ter vencido entre a concessão e aqui
+            if (!waiter.complete(permit)) {
+                permit.release();
+            }
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), value));
+    }
+
+    public class Permit {
+
+        private boolean released;
+
+        private Permit() {
+        }
+
+        public void release() {
+            List<CompletableFuture<Permit>> granted = List.of();
+            lock.lock();
+            try {
+                if (!released) {
+                    released = true;
+                    inFlight--;
+                    granted = grantAsyncWaiters();
+                    permitReleased.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+            completeGranted(granted);
+        }
+    }
+
+    public static class LimitExceededException extends RuntimeException {
+        public LimitExceededException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,19 +1,33 @@
 package br.com.fiap.fase5triagemsus.infrastructure.ai.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 
 import java.util.List;
+import java.util.Map;
 
 
 public class GeminiRequestDto {
 
+    // systemInstruction e cachedContent são mutuamente exclusivos: o conteúdo em cache já traz a instrução
     @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public record Request(
+            @JsonProperty("systemInstruction") Content systemInstruction,
+            @JsonProperty("cachedContent") String cachedContent,
             @JsonProperty("contents") List<Content> contents,
             @JsonProperty("generationConfig") GenerationConfig generationConfig
     ) {}
 
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record CachedContent(
+            @JsonProperty("model") String model,
+            @JsonProperty("systemInstruction") Content systemInstruction,
+            @JsonProperty("ttl") String ttl
+    ) {}
+
     @Builder
     public record Content(
             @JsonProperty("parts") List<Part> parts
@@ -24,11 +38,27 @@ public class GeminiRequestDto {
             @JsonProperty("text") String text
     ) {}
 
+    // responseMimeType e responseSchema pedem a saída estruturada: JSON puro, no formato do schema
     @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public record GenerationConfig(
             @JsonProperty("temperature") Double temperature,
             @JsonProperty("maxOutputTokens") Integer maxOutputTokens,
             @JsonProperty("topP") Double topP,
-            @JsonProperty("topK") Integer topK
+            @JsonProperty("topK") Integer topK,
+            @JsonProperty("responseMimeType") String responseMimeType,
+            @JsonProperty("responseSchema") Schema responseSchema
+    ) {}
+
+    // Subconjunto do OpenAPI aceito pelo Gemini; propertyOrdering define a ordem dos campos na resposta
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Schema(
+            @JsonProperty("type") String type,
+            @JsonProperty("enum") List<String> enumValues,
+            @JsonProperty("properties") Map<String, Schema> properties,
+            @JsonProperty("required") List<String> required,
+            @JsonProperty("propertyOrdering") List<String> propertyOrdering,
+            @JsonProperty("items") Schema items
     ) {}
 }
\ No newline at end of file
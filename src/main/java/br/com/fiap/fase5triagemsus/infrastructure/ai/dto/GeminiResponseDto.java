@@ -43,6 +43,7 @@ public class GeminiResponseDto {
     public record UsageMetadata(
             @JsonProperty("promptTokenCount") Integer promptTokenCount,
             @JsonProperty("candidatesTokenCount") Integer candidatesTokenCount,
+            @JsonProperty("cachedContentTokenCount") Integer cachedContentTokenCount,
             @JsonProperty("totalTokenCount") Integer totalTokenCount
     ) {}
 }
\ No newline at end of file
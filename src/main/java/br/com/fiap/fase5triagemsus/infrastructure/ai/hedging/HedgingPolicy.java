@@ -0,0 +1,150 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.hedging;
+
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiHedgingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests para as chamadas ao Gemini: se a primeira não responder até o percentil configurado da
+ * latência recente, sai uma segunda idêntica; vale a que responder primeiro e a outra é cancelada. Um
+ * orçamento limita hedges a uma fração das chamadas elegíveis, para que um Gemini lento por inteiro não
+ * receba o dobro de carga.
+ */
+@Component
+public class HedgingPolicy {
+
+    private static final int WINDOW = 256;
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double MAX_BUDGET = 10;
+
+    private final AiHedgingProperties properties;
+    private final Counter eligible;
+    private final Counter sent;
+    private final Counter won;
+    private final Counter overBudget;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] latencies = new long[WINDOW];
+    private int samples;
+    private int next;
+    private volatile long delayNanos = -1;
+    private long refreshedAt;
+    private double budget = 1;
+
+    public HedgingPolicy(AiHedgingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.refreshedAt = System.nanoTime() - REFRESH_NANOS;
+        this.eligible = hedges(meterRegistry, "eligible");
+        this.sent = hedges(meterRegistry, "sent");
+        this.won = hedges(meterRegistry, "won");
+        this.overBudget = hedges(meterRegistry, "over_budget");
+        Gauge.builder("triage.ai.hedging.delay", this, policy -> policy.delayNanos / 1e9)
+                .description("Atraso atual antes do hedge, em segundos (negativo: sem amostras suficientes)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra a latência de uma chamada bem-sucedida ao Gemini.
+     */
+    public void recordLatency(Duration latency) {
+        lock.lock();
+        try {
+            latencies[next] = latency.toNanos();
+            next = (next + 1) % WINDOW;
+            samples = Math.min(samples + 1, WINDOW);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Executa {@code attempt} e, se ela passar do atraso de hedge, uma segunda cópia; a primeira resposta
+     * vence. Se uma das duas falhar, vale o resultado da outra.
+     */
+    public <T> Mono<T> hedge(Supplier<Mono<T>> attempt) {
+        if (!properties.getEnabled()) {
+            return Mono.defer(attempt);
+        }
+        // Estado novo a cada assinatura: os retries de callGeminiAPI reassinam este Mono
+        return Mono.defer(() -> {
+            eligible.increment();
+            long delay = currentDelayNanos();
+            if (delay < 0) {
+                return Mono.defer(attempt);
+            }
+
+            AtomicBoolean hedgeStarted = new AtomicBoolean();
+            Mono<T> primary = Mono.defer(attempt).share();
+            Mono<T> secondary = Mono.delay(Duration.ofNanos(delay))
+                    .filter(tick -> trySpendBudget())
+                    .flatMap(tick -> {
+                        hedgeStarted.set(true);
+                        sent.increment();
+                        return Mono.defer(attempt).doOnNext(response -> won.increment());
+                    })
+                    .share();
+
+            // Uma falha só encerra a chamada se não houver a outra em andamento
+            return Mono.firstWithSignal(
+                    primary.onErrorResume(error -> hedgeStarted.get() ? secondary : Mono.error(error)),
+                    secondary.onErrorResume(error -> primary).switchIfEmpty(primary));
+        });
+    }
+
+    private boolean trySpendBudget() {
+        lock.lock();
+        try {
+            if (budget >= 1) {
+                budget -= 1;
+                return true;
+            }
+            overBudget.increment();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Cada chamada elegível deposita `budget` no orçamento; cada hedge gasta 1
+    private long currentDelayNanos() {
+        lock.lock();
+        try {
+            budget = Math.min(MAX_BUDGET, budget + properties.getBudget());
+            long now = System.nanoTime();
+            if (now - refreshedAt >= REFRESH_NANOS) {
+                refreshedAt = now;
+                delayNanos = computeDelay();
+            }
+            return delayNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long computeDelay() {
+        if (samples < properties.getMinSamples()) {
+            return -1;
+        }
+        long[] window = Arrays.copyOf(latencies, samples);
+        Arrays.sort(window);
+        int index = (int) Math.ceil(properties.getPercentile() * samples) - 1;
+        return Math.max(window[Math.max(index, 0)], properties.getMinDelay().toNanos());
+    }
+
+    private static Counter hedges(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("triage.ai.hedging.requests")
+                .description("Chamadas ao Gemini elegíveis a hedge e hedges enviados, vencedores ou barrados pelo orçamento")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
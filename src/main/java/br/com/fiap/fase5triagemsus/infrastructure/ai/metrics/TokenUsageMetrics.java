@@ -0,0 +1,56 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.metrics;
+
+import br.com.fiap.fase5triagemsus.infrastructure.ai.dto.GeminiResponseDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tokens por requisição ao Gemini, a partir do usageMetadata da resposta: entrada, saída e a parte da
+ * entrada servida pelo cachedContent.
+ */
+@Component
+public class TokenUsageMetrics {
+
+    private final DistributionSummary promptTokens;
+    private final DistributionSummary candidatesTokens;
+    private final DistributionSummary cachedTokens;
+    private final DistributionSummary requestChars;
+
+    public TokenUsageMetrics(MeterRegistry meterRegistry) {
+        this.promptTokens = tokens(meterRegistry, "prompt");
+        this.candidatesTokens = tokens(meterRegistry, "candidates");
+        this.cachedTokens = tokens(meterRegistry, "cached");
+        this.requestChars = DistributionSummary.builder("triage.ai.gemini.request.size")
+                .description("Caracteres de texto (instrução e prompt) enviados por requisição ao Gemini")
+                .baseUnit("characters")
+                .register(meterRegistry);
+    }
+
+    public void recordRequest(int textLength) {
+        requestChars.record(textLength);
+    }
+
+    public void recordUsage(GeminiResponseDto.UsageMetadata usage) {
+        if (usage == null) {
+            return;
+        }
+        record(promptTokens, usage.promptTokenCount());
+        record(candidatesTokens, usage.candidatesTokenCount());
+        record(cachedTokens, usage.cachedContentTokenCount());
+    }
+
+    private static void record(DistributionSummary summary, Integer value) {
+        if (value != null) {
+            summary.record(value);
+        }
+    }
+
+    private static DistributionSummary tokens(MeterRegistry meterRegistry, String type) {
+        return DistributionSummary.builder("triage.ai.gemini.tokens")
+                .description("Tokens por requisição ao Gemini")
+                .baseUnit("tokens")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.parsing;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lê o JSON do texto devolvido pelo modelo com um {@link JsonParser}, numa passada só, sem montar árvore
+ * nem recortar o texto. O que vier antes do JSON (cerca de markdown, texto livre) é pulado e a leitura para
+ * no fim do objeto ou array, então a cerca de fechamento nunca é lida. Só os campos de primeiro nível de cada
+ * objeto interessam; valores aninhados são pulados sem materializar.
+ */
+public final class TriageResponseParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private TriageResponseParser() {
+    }
+
+    /**
+     * Primeiro objeto JSON do texto.
+     */
+    public static Fields parseObject(String text) throws IOException {
+        try (JsonParser parser = open(text, '{')) {
+            parser.nextToken();
+            return readObject(parser);
+        }
+    }
+
+    /**
+     * Objetos do primeiro array JSON do texto, na ordem em que aparecem; itens que não são objeto são ignorados.
+     */
+    public static List<Fields> parseArray(String text) throws IOException {
+        try (JsonParser parser = open(text, '[')) {
+            parser.nextToken();
+            List<Fields> items = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new JsonParseException(parser, "Array JSON incompleto");
+                }
+                if (token == JsonToken.START_OBJECT) {
+                    items.add(readObject(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return items;
+        }
+    }
+
+    private static JsonParser open(String text, char start) throws IOException {
+        int startIndex = text != null ? text.indexOf(start) : -1;
+        if (startIndex < 0) {
+            throw new JsonParseException(null, "JSON não encontrado na resposta da IA");
+        }
+        StringReader reader = new StringReader(text);
+        reader.skip(startIndex);
+        return JSON_FACTORY.createParser(reader);
+    }
+
+    // Parser posicionado no START_OBJECT; termina no END_OBJECT correspondente
+    private static Fields readObject(JsonParser parser) throws IOException {
+        String triageId = null;
+        String priority = null;
+        String recommendation = null;
+        String reasoning = null;
+        Double confidence = null;
+
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case "triageId" -> triageId = text(parser, value);
+                case "priority" -> priority = text(parser, value);
+                case "recommendation" -> recommendation = text(parser, value);
+                case "reasoning" -> reasoning = text(parser, value);
+                case "confidence" -> confidence = number(parser, value);
+                default -> parser.skipChildren();
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new JsonParseException(parser, "Objeto JSON incompleto");
+        }
+        return new Fields(triageId, priority, recommendation, reasoning, confidence);
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!value.isScalarValue()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getText();
+    }
+
+    // Aceita número ou número entre aspas, como a leitura anterior por árvore
+    private static Double number(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            try {
+                return Double.parseDouble(parser.getText().trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    public record Fields(String triageId, String priority, String recommendation, String reasoning,
+                         Double confidence) {
+    }
+}
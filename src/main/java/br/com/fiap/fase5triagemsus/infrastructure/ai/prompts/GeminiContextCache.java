@@ -0,0 +1,120 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.prompts;
+
+import br.com.fiap.fase5triagemsus.infrastructure.ai.dto.GeminiRequestDto;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.GeminiProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Registra o protocolo de triagem uma vez como cachedContent no Gemini e devolve o nome para as requisições.
+ * Renova antes do TTL vencer; se o Gemini recusar (por exemplo, prompt abaixo do mínimo de tokens do cache),
+ * as chamadas seguem com systemInstruction e uma nova tentativa só acontece depois de {@link #RETRY_AFTER_FAILURE}.
+ */
+@Slf4j
+@Component
+public class GeminiContextCache {
+
+    private static final Duration RETRY_AFTER_FAILURE = Duration.ofMinutes(10);
+
+    private final WebClient webClient;
+    private final GeminiProperties geminiProperties;
+    private final TriagePromptBuilder promptBuilder;
+
+    private final AtomicReference<Mono<Optional<String>>> refreshing = new AtomicReference<>();
+    private volatile CachedContext current;
+    private volatile long retryAt;
+
+    public GeminiContextCache(WebClient geminiWebClient, GeminiProperties geminiProperties,
+                              TriagePromptBuilder promptBuilder) {
+        this.webClient = geminiWebClient;
+        this.geminiProperties = geminiProperties;
+        this.promptBuilder = promptBuilder;
+    }
+
+    /**
+     * Nome do cachedContent vigente, ou vazio para enviar a instrução na própria requisição.
+     */
+    public Mono<Optional<String>> cachedContentName() {
+        if (!geminiProperties.getContextCache()) {
+            return Mono.just(Optional.empty());
+        }
+        CachedContext context = current;
+        long now = System.currentTimeMillis();
+        if (context != null && now < context.refreshAt()) {
+            return Mono.just(Optional.of(context.name()));
+        }
+        if (now < retryAt) {
+            return Mono.just(Optional.empty());
+        }
+
+        // Uma única criação em andamento; as demais requisições aguardam a mesma
+        Mono<Optional<String>> created = create().cache();
+        if (refreshing.compareAndSet(null, created)) {
+            return created.doFinally(signal -> refreshing.compareAndSet(created, null));
+        }
+        Mono<Optional<String>> inProgress = refreshing.get();
+        return inProgress != null ? inProgress : Mono.just(Optional.ofNullable(current).map(CachedContext::name));
+    }
+
+    /**
+     * Descarta o cachedContent se o Gemini recusar uma requisição que o usava (expirado ou removido);
+     * a próxima chamada cria outro.
+     */
+    public void invalidateIfRejected(String name, Throwable error) {
+        if (name == null || !(error instanceof WebClientResponseException responseException)) {
+            return;
+        }
+        int status = responseException.getStatusCode().value();
+        CachedContext context = current;
+        if ((status == 400 || status == 403 || status == 404) && context != null && context.name().equals(name)) {
+            current = null;
+            log.warn("cachedContent {} recusado pelo Gemini ({}), será recriado", name, status);
+        }
+    }
+
+    private Mono<Optional<String>> create() {
+        Duration ttl = geminiProperties.getContextCacheTtl();
+        GeminiRequestDto.CachedContent body = GeminiRequestDto.CachedContent.builder()
+                .model("models/" + geminiProperties.getModel())
+                .systemInstruction(GeminiRequestDto.Content.builder()
+                        .parts(List.of(GeminiRequestDto.Part.builder().text(promptBuilder.getSystemInstruction()).build()))
+                        .build())
+                .ttl(ttl.toSeconds() + "s")
+                .build();
+
+        return webClient.post()
+                .uri("/cachedContents")
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(geminiProperties.getTimeout())
+                .map(response -> {
+                    String name = response.path("name").asText();
+                    if (name.isEmpty()) {
+                        throw new IllegalStateException("Resposta sem nome do cachedContent");
+                    }
+                    // Renova com 10% do TTL de folga para nenhuma requisição usar um cache expirado
+                    current = new CachedContext(name, System.currentTimeMillis() + ttl.toMillis() * 9 / 10);
+                    log.info("Protocolo de triagem registrado como cachedContent {}", name);
+                    return Optional.of(name);
+                })
+                .onErrorResume(error -> {
+                    current = null;
+                    retryAt = System.currentTimeMillis() + RETRY_AFTER_FAILURE.toMillis();
+                    log.warn("Cache de contexto do Gemini indisponível, usando systemInstruction: {}", error.getMessage());
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    private record CachedContext(String name, long refreshAt) {
+    }
+}
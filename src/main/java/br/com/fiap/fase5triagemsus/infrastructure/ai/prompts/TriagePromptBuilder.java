@@ -5,6 +5,8 @@ import br.com.fiap.fase5triagemsus.domain.entities.Triage;
 import br.com.fiap.fase5triagemsus.domain.valueobjects.Symptom;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 
 @Component
 public class TriagePromptBuilder {
@@ -60,54 +62,89 @@ public class TriagePromptBuilder {
         """;
 
 
+    // Parte fixa por requisição mais uma linha por sintoma; evita realocações do StringBuilder
+    private static final int PATIENT_SECTION_CAPACITY = 160;
+    private static final int SYMPTOM_LINE_CAPACITY = 96;
+    private static final int TRIAGE_HEADER_CAPACITY = 48;
+
+    private static final String BATCH_HEADER = "Classifique cada triagem abaixo de forma independente. Responda APENAS "
+            + "com um array JSON, um objeto por triagem no formato definido, acrescido do campo \"triageId\" "
+            + "com o identificador da triagem.\n";
+
+
+    /**
+     * Protocolo de Manchester e formato de resposta, enviados como systemInstruction (ou cachedContent)
+     * em vez de repetidos no conteúdo de cada triagem.
+     */
+    public String getSystemInstruction() {
+        return SYSTEM_PROMPT;
+    }
+
+    /**
+     * Só os dados da triagem, em formato compacto; as regras ficam na {@link #getSystemInstruction()}.
+     */
     public String buildTriagePrompt(Triage triage, Patient patient) {
-        StringBuilder prompt = new StringBuilder();
+        StringBuilder prompt = new StringBuilder(PATIENT_SECTION_CAPACITY
+                + SYMPTOM_LINE_CAPACITY * triage.getSymptoms().size());
 
-        prompt.append(SYSTEM_PROMPT).append("\n\n");
-        prompt.append("DADOS DO PACIENTE:\n");
-        prompt.append("- Idade: ").append(patient.getAge()).append(" anos\n");
-        prompt.append("- Gênero: ").append(patient.getGender()).append("\n");
+        appendTriageData(prompt, triage, patient);
 
-        // Adicionar características especiais do paciente
-        if (patient.isChild()) {
-            prompt.append("- ATENÇÃO: Paciente pediátrico\n");
+        prompt.append("Classifique a triagem no formato JSON definido.");
+        return prompt.toString();
+    }
+
+    /**
+     * Várias triagens numa única requisição, cada uma identificada pelo id; a resposta esperada é um array
+     * JSON com um objeto por triagem no formato da {@link #getSystemInstruction()}, mais o campo "triageId".
+     */
+    public String buildBatchPrompt(List<BatchItem> items) {
+        int capacity = BATCH_HEADER.length();
+        for (BatchItem item : items) {
+            capacity += TRIAGE_HEADER_CAPACITY + PATIENT_SECTION_CAPACITY
+                    + SYMPTOM_LINE_CAPACITY * item.triage().getSymptoms().size();
         }
-        if (patient.isElderly()) {
-            prompt.append("- ATENÇÃO: Paciente idoso\n");
+        StringBuilder prompt = new StringBuilder(capacity);
+
+        prompt.append(BATCH_HEADER);
+        for (BatchItem item : items) {
+            prompt.append("\nTRIAGEM ").append(item.triage().getId().getValue()).append('\n');
+            appendTriageData(prompt, item.triage(), item.patient());
         }
+        return prompt.toString();
+    }
 
-        prompt.append("\nSINTOMAS REPORTADOS:\n");
+    private void appendTriageData(StringBuilder prompt, Triage triage, Patient patient) {
+        prompt.append("PACIENTE: ").append(patient.getAge()).append(" anos, gênero ").append(patient.getGender());
+        if (patient.isChild()) {
+            prompt.append(", pediátrico");
+        } else if (patient.isElderly()) {
+            prompt.append(", idoso");
+        }
+
+        prompt.append("\nSINTOMAS (").append(triage.getSymptoms().size())
+                .append("; graves: ").append(triage.countSevereSymptoms())
+                .append("; moderados: ").append(triage.countModerateSymptoms()).append("):\n");
 
         int symptomIndex = 1;
         for (Symptom symptom : triage.getSymptoms()) {
-            prompt.append(symptomIndex++).append(". ");
-            prompt.append("Descrição: ").append(symptom.getDescription());
-            prompt.append(" | Intensidade: ").append(symptom.getIntensity()).append("/10");
+            prompt.append(symptomIndex++).append(". ").append(symptom.getDescription())
+                    .append(" | ").append(symptom.getIntensity()).append("/10");
 
             if (symptom.getLocation() != null && !symptom.getLocation().trim().isEmpty()) {
-                prompt.append(" | Localização: ").append(symptom.getLocation());
+                prompt.append(" | ").append(symptom.getLocation());
             }
 
-            // Adicionar classificação do sintoma
             if (symptom.isSevere()) {
-                prompt.append(" [SINTOMA GRAVE]");
+                prompt.append(" | GRAVE");
             } else if (symptom.isModerate()) {
-                prompt.append(" [SINTOMA MODERADO]");
+                prompt.append(" | MODERADO");
             }
 
-            prompt.append("\n");
+            prompt.append('\n');
         }
+    }
 
-        // Adicionar contexto adicional
-        prompt.append("\nCONTEXTO ADICIONAL:\n");
-        prompt.append("- Total de sintomas: ").append(triage.getSymptoms().size()).append("\n");
-        prompt.append("- Sintomas graves: ").append(triage.countSevereSymptoms()).append("\n");
-        prompt.append("- Sintomas moderados: ").append(triage.countModerateSymptoms()).append("\n");
-        prompt.append("- Horário da triagem: ").append(triage.getCreatedAt()).append("\n");
-
-        prompt.append("\nAnalise os sintomas e forneça a classificação de triagem em formato JSON:");
-
-        return prompt.toString();
+    public record BatchItem(Triage triage, Patient patient) {
     }
 
     /**
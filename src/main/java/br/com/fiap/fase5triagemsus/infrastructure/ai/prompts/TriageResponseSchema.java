@@ -0,0 +1,55 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.prompts;
+
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.dto.GeminiRequestDto.Schema;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schemas de resposta enviados ao Gemini na saída estruturada, no formato do
+ * {@link br.com.fiap.fase5triagemsus.domain.services.AITriageService.TriageAnalysisResult}: os mesmos campos
+ * obrigatórios e os mesmos valores de prioridade que o parse da resposta exige. A prioridade vem primeiro para
+ * o streaming poder gravá-la antes do restante.
+ */
+public final class TriageResponseSchema {
+
+    private static final List<String> FIELDS = List.of("priority", "recommendation", "reasoning", "confidence");
+
+    public static final Schema SINGLE = object(FIELDS);
+
+    // Lote: array de objetos com o triageId antes dos campos da análise
+    public static final Schema BATCH = Schema.builder()
+            .type("ARRAY")
+            .items(object(List.of("triageId", "priority", "recommendation", "reasoning", "confidence")))
+            .build();
+
+    private TriageResponseSchema() {
+    }
+
+    private static Schema object(List<String> fields) {
+        Map<String, Schema> properties = new LinkedHashMap<>();
+        for (String field : fields) {
+            properties.put(field, property(field));
+        }
+        return Schema.builder()
+                .type("OBJECT")
+                .properties(properties)
+                .required(fields)
+                .propertyOrdering(fields)
+                .build();
+    }
+
+    private static Schema property(String field) {
+        return switch (field) {
+            case "priority" -> Schema.builder()
+                    .type("STRING")
+                    .enumValues(Arrays.stream(PriorityLevel.values()).map(Enum::name).toList())
+                    .build();
+            case "confidence" -> Schema.builder().type("NUMBER").build();
+            default -> Schema.builder().type("STRING").build();
+        };
+    }
+}
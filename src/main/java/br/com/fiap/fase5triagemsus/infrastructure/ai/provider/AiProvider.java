@@ -0,0 +1,39 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.provider;
+
+import br.com.fiap.fase5triagemsus.domain.entities.Patient;
+import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.domain.services.AITriageService.TriageAnalysisResult;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.prompts.TriagePromptBuilder.BatchItem;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Endpoint de modelo que classifica triagens; o roteador escolhe um por requisição pelo {@link #name()}
+ * configurado em {@code triage.ai.router.weights}. Falha absorvida pelo provedor volta como resultado de
+ * fallback; falha propagada (por exemplo, falta de cota) chega como erro. Nos dois casos o roteador pode
+ * tentar outro provedor.
+ */
+public interface AiProvider {
+
+    String name();
+
+    /**
+     * Análise de uma triagem; {@code onPriority}, quando informado, recebe a prioridade antes do resultado
+     * completo se o provedor souber antecipá-la.
+     */
+    Mono<TriageAnalysisResult> analyze(Triage triage, Patient patient, Consumer<PriorityLevel> onPriority);
+
+    /**
+     * Análise de várias triagens, com os resultados na ordem de {@code items}. Provedores sem chamada em
+     * lote analisam item a item.
+     */
+    default Mono<List<TriageAnalysisResult>> analyzeBatch(List<BatchItem> items) {
+        return Flux.fromIterable(items)
+                .flatMapSequential(item -> analyze(item.triage(), item.patient(), null))
+                .collectList();
+    }
+}
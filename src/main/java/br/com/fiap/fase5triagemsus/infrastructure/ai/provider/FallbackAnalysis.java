@@ -0,0 +1,47 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.provider;
+
+import br.com.fiap.fase5triagemsus.domain.entities.Patient;
+import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.domain.services.AITriageService.TriageAnalysisResult;
+
+/**
+ * Classificação conservadora usada por qualquer {@link AiProvider} quando a IA não entrega uma análise
+ * válida: prioriza pelos sintomas graves e pela faixa etária do paciente.
+ */
+public final class FallbackAnalysis {
+
+    private FallbackAnalysis() {
+    }
+
+    public static TriageAnalysisResult of(Triage triage, Patient patient, Throwable originalError) {
+        PriorityLevel fallbackPriority = priority(triage, patient);
+
+        String recommendation = String.format(
+                "ATENÇÃO: Análise realizada em modo de emergência devido a falha no sistema de IA. " +
+                        "Recomenda-se avaliação médica presencial imediata. " +
+                        "Paciente apresenta %d sintoma(s), sendo %d grave(s). " +
+                        "Erro original: %s",
+                triage.getSymptoms().size(),
+                triage.countSevereSymptoms(),
+                originalError.getMessage()
+        );
+
+        String reasoning = "Classificação conservadora devido a falha no sistema de IA. " +
+                "Baseada em análise de sintomas graves e características do paciente.";
+
+        return new TriageAnalysisResult(fallbackPriority, recommendation, reasoning, 0.5, true);
+    }
+
+    public static PriorityLevel priority(Triage triage, Patient patient) {
+        if (triage.countSevereSymptoms() > 0) {
+            return patient.isElderly() || patient.isChild() ? PriorityLevel.VERY_URGENT : PriorityLevel.URGENT;
+        }
+
+        if (triage.countModerateSymptoms() >= 3) {
+            return PriorityLevel.URGENT;
+        }
+
+        return PriorityLevel.LESS_URGENT;
+    }
+}
@@ -0,0 +1,166 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.provider.replay;
+
+import br.com.fiap.fase5triagemsus.domain.entities.Patient;
+import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.domain.services.AITriageService.TriageAnalysisResult;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.prompts.TriagePromptBuilder;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.provider.AiProvider;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.provider.FallbackAnalysis;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.recording.RecordedResponse;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.recording.ResponseRecorder;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.services.GeminiAITriageService;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiRecordingProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Provedor que devolve respostas gravadas pelo {@link ResponseRecorder}, sem rede. Cada análise monta o
+ * mesmo prompt que o Gemini receberia, procura a impressão digital nos segmentos e responde depois da latência
+ * gravada, passando pelo mesmo parse do Gemini. Prompt sem gravação recebe, de forma determinística, uma
+ * gravação qualquer do conjunto, para a carga manter o formato mesmo com dados um pouco diferentes. Só recebe
+ * chamadas com peso em {@code triage.ai.router.weights.replay}.
+ */
+@Slf4j
+@Component
+public class ReplayAiProvider implements AiProvider {
+
+    public static final String NAME = "replay";
+
+    private final TriagePromptBuilder promptBuilder;
+    private final AiRecordingProperties properties;
+    private final Map<String, Recorded> byFingerprint = new HashMap<>();
+    private final List<RecordedResponse> all = new ArrayList<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public ReplayAiProvider(TriagePromptBuilder promptBuilder, AiRecordingProperties properties,
+                            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.promptBuilder = promptBuilder;
+        this.properties = properties;
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        if ("replay".equals(properties.getMode())) {
+            load(Path.of(properties.getDirectory()), objectMapper);
+        }
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Mono<TriageAnalysisResult> analyze(Triage triage, Patient patient, Consumer<PriorityLevel> onPriority) {
+        if (all.isEmpty()) {
+            return Mono.error(new IllegalStateException(
+                    "Replay sem gravações carregadas; use triage.ai.recording.mode=replay"));
+        }
+        return Mono.fromCallable(() -> lookup(promptBuilder.buildTriagePrompt(triage, patient)))
+                .flatMap(entry -> Mono.delay(scaled(entry.latencyMillis())).thenReturn(entry))
+                .map(entry -> GeminiAITriageService.parseTriageResponse(entry.text()))
+                // Como no streaming do Gemini, a prioridade antecipada chega antes do resultado completo
+                .doOnNext(result -> {
+                    if (onPriority != null) {
+                        onPriority.accept(result.priority());
+                    }
+                })
+                .onErrorResume(GeminiAITriageService.AIAnalysisException.class,
+                        e -> Mono.just(FallbackAnalysis.of(triage, patient, e)));
+    }
+
+    private RecordedResponse lookup(String prompt) {
+        String fingerprint = ResponseRecorder.fingerprint(prompt);
+        Recorded recorded = byFingerprint.get(fingerprint);
+        if (recorded != null) {
+            hits.increment();
+            return recorded.next();
+        }
+        misses.increment();
+        return all.get(Math.floorMod(fingerprint.hashCode(), all.size()));
+    }
+
+    private Duration scaled(long latencyMillis) {
+        return Duration.ofMillis(Math.round(latencyMillis * properties.getLatencyScale()));
+    }
+
+    private void load(Path directory, ObjectMapper objectMapper) {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(path -> path.getFileName().toString().endsWith(ResponseRecorder.SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível ler as gravações em " + directory, e);
+        }
+
+        int skipped = 0;
+        for (Path segment : segments) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        RecordedResponse entry = objectMapper.readValue(line, RecordedResponse.class);
+                        all.add(entry);
+                        byFingerprint.computeIfAbsent(entry.fingerprint(), key -> new Recorded()).add(entry);
+                    } catch (JsonProcessingException e) {
+                        // Última linha cortada quando o processo que gravava caiu
+                        skipped++;
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Não foi possível ler o segmento " + segment, e);
+            }
+        }
+
+        if (all.isEmpty()) {
+            throw new IllegalStateException("Nenhuma gravação encontrada em " + directory);
+        }
+        log.info("Replay carregou {} respostas ({} prompts distintos) de {} segmentos; {} linhas ignoradas",
+                all.size(), byFingerprint.size(), segments.size(), skipped);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("triage.ai.replay.requests")
+                .description("Análises servidas pelo replay, por prompt encontrado ou não na gravação")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // Respostas gravadas para o mesmo prompt, servidas em rodízio
+    private static final class Recorded {
+
+        private final List<RecordedResponse> responses = new ArrayList<>(1);
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        void add(RecordedResponse response) {
+            responses.add(response);
+        }
+
+        RecordedResponse next() {
+            return responses.get(Math.floorMod(cursor.getAndIncrement(), responses.size()));
+        }
+    }
+}
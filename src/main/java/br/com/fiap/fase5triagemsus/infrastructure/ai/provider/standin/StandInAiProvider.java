@@ -0,0 +1,63 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.provider.standin;
+
+import br.com.fiap.fase5triagemsus.domain.entities.Patient;
+import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.domain.services.AITriageService.TriageAnalysisResult;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.provider.AiProvider;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.provider.FallbackAnalysis;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiStandInProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Consumer;
+
+/**
+ * Provedor que chama o servidor substituto ({@link StandInModelController}), deste ou de outro nó. Só recebe
+ * chamadas com peso em {@code triage.ai.router.weights.stand-in}.
+ */
+@Slf4j
+@Component
+public class StandInAiProvider implements AiProvider {
+
+    public static final String NAME = "stand-in";
+
+    private final WebClient webClient;
+    private final AiStandInProperties properties;
+
+    public StandInAiProvider(WebClient standInWebClient, AiStandInProperties properties) {
+        this.webClient = standInWebClient;
+        this.properties = properties;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Mono<TriageAnalysisResult> analyze(Triage triage, Patient patient, Consumer<PriorityLevel> onPriority) {
+        StandInDto.Request request = StandInDto.Request.builder()
+                .triageId(triage.getId().getValue())
+                .patientAge(patient.getAge())
+                .symptoms(triage.getSymptoms().size())
+                .severeSymptoms(triage.countSevereSymptoms())
+                .moderateSymptoms(triage.countModerateSymptoms())
+                .build();
+
+        return webClient.post()
+                .uri("/analyze")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(StandInDto.Response.class)
+                .timeout(properties.getTimeout())
+                .map(response -> new TriageAnalysisResult(PriorityLevel.valueOf(response.priority()),
+                        response.recommendation(), response.reasoning(), response.confidence()))
+                .onErrorResume(error -> {
+                    log.debug("Stand-in falhou para a triagem {}: {}", triage.getId().getValue(), error.getMessage());
+                    return Mono.just(FallbackAnalysis.of(triage, patient, error));
+                });
+    }
+}
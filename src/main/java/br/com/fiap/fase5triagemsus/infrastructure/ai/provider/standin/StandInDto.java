@@ -0,0 +1,26 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.provider.standin;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+
+
+public class StandInDto {
+
+    @Builder
+    public record Request(
+            @JsonProperty("triageId") String triageId,
+            @JsonProperty("patientAge") Integer patientAge,
+            @JsonProperty("symptoms") Integer symptoms,
+            @JsonProperty("severeSymptoms") Long severeSymptoms,
+            @JsonProperty("moderateSymptoms") Long moderateSymptoms
+    ) {}
+
+    // Mesmo formato de resposta exigido do Gemini pelo protocolo de triagem
+    @Builder
+    public record Response(
+            @JsonProperty("priority") String priority,
+            @JsonProperty("recommendation") String recommendation,
+            @JsonProperty("reasoning") String reasoning,
+            @JsonProperty("confidence") Double confidence
+    ) {}
+}
@@ -0,0 +1,87 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.provider.standin;
+
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiStandInProperties;
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Servidor substituto do modelo para testes de carga sem chave do Gemini: responde no formato do protocolo
+ * de triagem com latência log-normal (mediana e p99 configuráveis) e uma fração de 503 e 429. A prioridade
+ * segue uma regra simples sobre sintomas graves, moderados e idade; não é uma classificação clínica.
+ */
+@Hidden
+@RestController
+@RequestMapping("/stand-in")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "triage.ai.stand-in", name = "server-enabled", havingValue = "true")
+public class StandInModelController {
+
+    // Quantil 0,99 da normal padrão: sigma = ln(p99 / mediana) / Z_99
+    private static final double Z_99 = 2.3263;
+
+    private final AiStandInProperties properties;
+
+    @PostMapping("/analyze")
+    public Mono<ResponseEntity<StandInDto.Response>> analyze(@RequestBody StandInDto.Request request) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Duration latency = sampleLatency(random);
+        double roll = random.nextDouble();
+
+        ResponseEntity<StandInDto.Response> response;
+        if (roll < properties.getThrottleRate()) {
+            response = ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").build();
+        } else if (roll < properties.getThrottleRate() + properties.getErrorRate()) {
+            response = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } else {
+            response = ResponseEntity.ok(classify(request, random));
+        }
+        return Mono.delay(latency).thenReturn(response);
+    }
+
+    private Duration sampleLatency(ThreadLocalRandom random) {
+        double median = Math.max(properties.getLatencyMedian().toNanos(), 1);
+        double p99 = Math.max(properties.getLatencyP99().toNanos(), median);
+        double sigma = Math.log(p99 / median) / Z_99;
+        return Duration.ofNanos((long) (median * Math.exp(sigma * random.nextGaussian())));
+    }
+
+    private StandInDto.Response classify(StandInDto.Request request, ThreadLocalRandom random) {
+        long severe = request.severeSymptoms() != null ? request.severeSymptoms() : 0;
+        long moderate = request.moderateSymptoms() != null ? request.moderateSymptoms() : 0;
+        int age = request.patientAge() != null ? request.patientAge() : 30;
+        boolean vulnerable = age < 12 || age >= 65;
+
+        PriorityLevel priority;
+        if (severe > 1 || (severe == 1 && vulnerable)) {
+            priority = PriorityLevel.VERY_URGENT;
+        } else if (severe == 1 || moderate >= 3) {
+            priority = PriorityLevel.URGENT;
+        } else if (moderate > 0) {
+            priority = PriorityLevel.LESS_URGENT;
+        } else {
+            priority = PriorityLevel.NON_URGENT;
+        }
+
+        return StandInDto.Response.builder()
+                .priority(priority.name())
+                .recommendation("Resposta simulada pelo stand-in: atendimento em até "
+                        + priority.getMaxWaitTimeMinutes() + " minutos.")
+                .reasoning(String.format("Stand-in: %d sintoma(s) grave(s), %d moderado(s), paciente com %d anos.",
+                        severe, moderate, age))
+                .confidence(0.7 + random.nextDouble() * 0.25)
+                .build();
+    }
+}
@@ -0,0 +1,284 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.ratelimit;
+
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiRateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket no Redis com as cotas de requisições e de tokens por minuto do Gemini, compartilhado por
+ * todos os nós. Cada ida ao Redis reserva até {@code prefetch} requisições (e os tokens estimados para
+ * elas), consumidas localmente até expirar prefetch-ttl; o que sobra volta ao bucket, então um nó com pouco
+ * tráfego não queima a cota dos demais. Um 429 pausa a cota de todos os nós pelo Retry-After informado, em
+ * vez de cada nó insistir por conta própria.
+ */
+@Slf4j
+@Component
+public class DistributedRateLimiter {
+
+    private static final String REQUESTS_KEY = "triage:ai:ratelimit:requests";
+    private static final String TOKENS_KEY = "triage:ai:ratelimit:tokens";
+    private static final String PAUSED_UNTIL_KEY = "triage:ai:ratelimit:paused-until";
+
+    // Retorna {requisições concedidas, tokens concedidos, espera em ms}; o relógio é o do Redis
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> RESERVE_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+            local pausedUntil = tonumber(redis.call('GET', KEYS[3]) or '0')
+            if pausedUntil > now then
+                return {0, 0, pausedUntil - now}
+            end
+
+            local rpm = tonumber(ARGV[1])
+            local tpm = tonumber(ARGV[2])
+            local wantedRequests = tonumber(ARGV[3])
+            local minTokens = math.min(tonumber(ARGV[4]), tpm)
+            local wantedTokens = math.max(tonumber(ARGV[5]), minTokens)
+
+            local function refill(key, capacity)
+                local state = redis.call('HMGET', key, 'available', 'updated')
+                local available = tonumber(state[1]) or capacity
+                local updated = tonumber(state[2]) or now
+                return math.min(capacity, available + (now - updated) * capacity / 60000)
+            end
+
+            local requests = refill(KEYS[1], rpm)
+            local tokens = refill(KEYS[2], tpm)
+            local grantedRequests = 0
+            local grantedTokens = 0
+            local wait = 0
+
+            if requests >= 1 and tokens >= minTokens then
+                grantedRequests = math.min(math.floor(requests), wantedRequests)
+                grantedTokens = math.floor(math.min(tokens, wantedTokens))
+                requests = requests - grantedRequests
+                tokens = tokens - grantedTokens
+            else
+                if requests < 1 then
+                    wait = math.ceil((1 - requests) * 60000 / rpm)
+                end
+                if tokens < minTokens then
+                    wait = math.max(wait, math.ceil((minTokens - tokens) * 60000 / tpm))
+                end
+            end
+
+            redis.call('HSET', KEYS[1], 'available', requests, 'updated', now)
+            redis.call('HSET', KEYS[2], 'available', tokens, 'updated', now)
+            redis.call('PEXPIRE', KEYS[1], 120000)
+            redis.call('PEXPIRE', KEYS[2], 120000)
+            return {grantedRequests, grantedTokens, wait}
+            """, List.class);
+
+    // Devolve a sobra de uma pré-reserva, limitada à capacidade; bucket já expirado está cheio e fica como está
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+            local function giveBack(key, capacity, amount)
+                local state = redis.call('HMGET', key, 'available', 'updated')
+                if not state[1] or amount <= 0 then
+                    return
+                end
+                local updated = tonumber(state[2]) or now
+                local available = tonumber(state[1]) + (now - updated) * capacity / 60000 + amount
+                redis.call('HSET', key, 'available', math.min(capacity, available), 'updated', now)
+            end
+
+            giveBack(KEYS[1], tonumber(ARGV[1]), tonumber(ARGV[3]))
+            giveBack(KEYS[2], tonumber(ARGV[2]), tonumber(ARGV[4]))
+            return 1
+            """, Long.class);
+
+    // Só estende a pausa; um Retry-After menor não encurta uma pausa já em vigor
+    private static final DefaultRedisScript<Long> PAUSE_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local pausedUntil = now + tonumber(ARGV[1])
+            if pausedUntil > tonumber(redis.call('GET', KEYS[1]) or '0') then
+                redis.call('SET', KEYS[1], pausedUntil, 'PX', ARGV[1])
+            end
+            return pausedUntil
+            """, Long.class);
+
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final AiRateLimitProperties properties;
+    private final Counter reservations;
+    private final Counter pauses;
+    private final Counter released;
+    private final Timer waitTimer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private int localRequests;
+    private long localTokens;
+    private long localExpiresAt;
+    private long localGeneration;
+
+    public DistributedRateLimiter(ReactiveStringRedisTemplate reactiveRedisTemplate, AiRateLimitProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.properties = properties;
+        this.reservations = Counter.builder("triage.ai.ratelimit.reservations")
+                .description("Idas ao Redis para reservar cota do Gemini")
+                .register(meterRegistry);
+        this.pauses = Counter.builder("triage.ai.ratelimit.pauses")
+                .description("Pausas globais de cota após 429")
+                .register(meterRegistry);
+        this.released = Counter.builder("triage.ai.ratelimit.released")
+                .description("Requisições pré-reservadas devolvidas ao bucket sem uso")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("triage.ai.ratelimit.wait")
+                .description("Espera por cota antes de chamar o Gemini")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Completa quando houver cota para uma requisição de {@code estimatedTokens}; falha com
+     * {@link QuotaExceededException} se a espera passar de max-wait.
+     */
+    public Mono<Void> acquire(int estimatedTokens) {
+        if (!properties.getEnabled()) {
+            return Mono.empty();
+        }
+        long startedAt = System.nanoTime();
+        return reserve(estimatedTokens)
+                .timeout(properties.getMaxWait(), Mono.error(() -> new QuotaExceededException(String.format(
+                        "Cota do Gemini esgotada por mais de %d s", properties.getMaxWait().toSeconds()))))
+                .doOnSuccess(ignored -> waitTimer.record(Duration.ofNanos(System.nanoTime() - startedAt)));
+    }
+
+    /**
+     * Pausa a cota de todos os nós por {@code retryAfter} e descarta a pré-reserva local.
+     */
+    public void pause(Duration retryAfter) {
+        // Retry-After 0 ou data no passado: nada a pausar, e SET com PX 0 seria recusado pelo Redis
+        if (!properties.getEnabled() || retryAfter == null || retryAfter.toMillis() <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            // Com a cota estourada a sobra local é descartada, não devolvida
+            localRequests = 0;
+            localTokens = 0;
+            localGeneration++;
+        } finally {
+            lock.unlock();
+        }
+        pauses.increment();
+        reactiveRedisTemplate.execute(PAUSE_SCRIPT, List.of(PAUSED_UNTIL_KEY), List.of(String.valueOf(retryAfter.toMillis())))
+                .subscribe(until -> log.warn("Cota do Gemini pausada por {} ms em todos os nós", retryAfter.toMillis()),
+                        error -> log.warn("Erro ao pausar cota do Gemini: {}", error.getMessage()));
+    }
+
+    private Mono<Void> reserve(int estimatedTokens) {
+        return Mono.defer(() -> {
+            if (takeLocal(estimatedTokens)) {
+                return Mono.empty();
+            }
+            reservations.increment();
+            long wantedTokens = (long) estimatedTokens * properties.getPrefetch();
+            return reactiveRedisTemplate.execute(RESERVE_SCRIPT, List.of(REQUESTS_KEY, TOKENS_KEY, PAUSED_UNTIL_KEY),
+                            List.of(String.valueOf(properties.getRequestsPerMinute()),
+                                    String.valueOf(properties.getTokensPerMinute()),
+                                    String.valueOf(properties.getPrefetch()),
+                                    String.valueOf(estimatedTokens),
+                                    String.valueOf(wantedTokens)))
+                    .next()
+                    .flatMap(reply -> {
+                        long grantedRequests = ((Number) reply.get(0)).longValue();
+                        long grantedTokens = ((Number) reply.get(1)).longValue();
+                        long waitMillis = ((Number) reply.get(2)).longValue();
+                        if (grantedRequests > 0) {
+                            storeLocal((int) grantedRequests - 1, grantedTokens - estimatedTokens);
+                            return Mono.<Void>empty();
+                        }
+                        return Mono.delay(Duration.ofMillis(Math.max(waitMillis, 1))).then(reserve(estimatedTokens));
+                    });
+        });
+    }
+
+    private boolean takeLocal(int estimatedTokens) {
+        lock.lock();
+        try {
+            if (localRequests > 0 && localTokens >= estimatedTokens && System.currentTimeMillis() < localExpiresAt) {
+                localRequests--;
+                localTokens -= estimatedTokens;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A nova pré-reserva substitui a anterior, cuja sobra volta ao bucket; a sobra da nova volta quando
+    // prefetch-ttl vencer, se ninguém a consumir antes
+    private void storeLocal(int requests, long tokens) {
+        int leftoverRequests;
+        long leftoverTokens;
+        long generation;
+        lock.lock();
+        try {
+            leftoverRequests = localRequests;
+            leftoverTokens = localTokens;
+            localRequests = requests;
+            localTokens = Math.max(0, tokens);
+            localExpiresAt = System.currentTimeMillis() + properties.getPrefetchTtl().toMillis();
+            generation = ++localGeneration;
+        } finally {
+            lock.unlock();
+        }
+        release(leftoverRequests, leftoverTokens);
+        if (requests > 0) {
+            Mono.delay(properties.getPrefetchTtl()).subscribe(tick -> expireLocal(generation));
+        }
+    }
+
+    private void expireLocal(long generation) {
+        int leftoverRequests;
+        long leftoverTokens;
+        lock.lock();
+        try {
+            if (generation != localGeneration) {
+                return;
+            }
+            leftoverRequests = localRequests;
+            leftoverTokens = localTokens;
+            localRequests = 0;
+            localTokens = 0;
+        } finally {
+            lock.unlock();
+        }
+        release(leftoverRequests, leftoverTokens);
+    }
+
+    private void release(int requests, long tokens) {
+        if (requests <= 0 && tokens <= 0) {
+            return;
+        }
+        released.increment(Math.max(requests, 0));
+        reactiveRedisTemplate.execute(RELEASE_SCRIPT, List.of(REQUESTS_KEY, TOKENS_KEY),
+                        List.of(String.valueOf(properties.getRequestsPerMinute()),
+                                String.valueOf(properties.getTokensPerMinute()),
+                                String.valueOf(requests),
+                                String.valueOf(tokens)))
+                .subscribe(ignored -> { },
+                        error -> log.warn("Erro ao devolver pré-reserva de cota do Gemini: {}", error.getMessage()));
+    }
+
+    public static class QuotaExceededException extends RuntimeException {
+        public QuotaExceededException(String message) {
+            super(message);
+        }
+    }
+}
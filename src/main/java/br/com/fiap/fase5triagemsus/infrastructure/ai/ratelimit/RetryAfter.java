@@ -0,0 +1,52 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extrai de um 429 quanto tempo o Gemini pediu para esperar: header {@code Retry-After} (segundos ou
+ * data HTTP) ou, na falta dele, o {@code retryDelay} do corpo de erro da API. Uma espera nula ou já vencida
+ * conta como ausente, para a nova tentativa seguir o backoff com jitter em vez de repetir na hora.
+ */
+public final class RetryAfter {
+
+    private static final Pattern RETRY_DELAY = Pattern.compile("\"retryDelay\"\\s*:\\s*\"(\\d+(?:\\.\\d+)?)s\"");
+
+    private RetryAfter() {
+    }
+
+    public static Optional<Duration> of(WebClientResponseException exception) {
+        String header = exception.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (header != null && !header.isBlank()) {
+            try {
+                return positive(Duration.ofSeconds(Long.parseLong(header.trim())));
+            } catch (NumberFormatException e) {
+                try {
+                    Duration until = Duration.between(ZonedDateTime.now(),
+                            ZonedDateTime.parse(header.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                    return positive(until);
+                } catch (DateTimeParseException ignored) {
+                    // Header fora do padrão; tenta o corpo
+                }
+            }
+        }
+
+        Matcher matcher = RETRY_DELAY.matcher(exception.getResponseBodyAsString());
+        if (matcher.find()) {
+            return positive(Duration.ofMillis((long) (Double.parseDouble(matcher.group(1)) * 1000)));
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<Duration> positive(Duration delay) {
+        return delay.isNegative() || delay.isZero() ? Optional.empty() : Optional.of(delay);
+    }
+}
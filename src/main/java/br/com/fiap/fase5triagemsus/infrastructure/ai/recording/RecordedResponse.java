@@ -0,0 +1,8 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.recording;
+
+/**
+ * Uma linha do segmento de gravação: impressão digital do prompt, latência vista pelo chamador (com retries
+ * e hedge) e o texto devolvido pelo modelo, sem tratamento.
+ */
+public record RecordedResponse(String fingerprint, long latencyMillis, String text) {
+}
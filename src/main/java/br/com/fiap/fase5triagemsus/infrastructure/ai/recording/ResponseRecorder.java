@@ -0,0 +1,128 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.recording;
+
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiRecordingProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Com {@code triage.ai.recording.mode=record}, acrescenta cada resposta do Gemini a um segmento novo em
+ * {@code triage.ai.recording.directory}, uma linha JSON por chamada. A escrita fica numa thread própria para
+ * não segurar a thread do Netty; fora do modo record nada é aberto.
+ */
+@Slf4j
+@Component
+public class ResponseRecorder {
+
+    public static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final DateTimeFormatter SEGMENT_NAME = DateTimeFormatter.ofPattern("'gemini-'yyyyMMdd-HHmmss-SSS");
+
+    private final ObjectMapper objectMapper;
+    private final Counter recorded;
+    private final Path segment;
+    private final BufferedWriter writer;
+    private final ExecutorService writerExecutor;
+
+    public ResponseRecorder(AiRecordingProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.recorded = Counter.builder("triage.ai.recording.entries")
+                .description("Respostas do Gemini gravadas para replay")
+                .register(meterRegistry);
+
+        if (!"record".equals(properties.getMode())) {
+            this.segment = null;
+            this.writer = null;
+            this.writerExecutor = null;
+            return;
+        }
+
+        Path directory = Path.of(properties.getDirectory());
+        this.segment = directory.resolve(LocalDateTime.now().format(SEGMENT_NAME) + SEGMENT_SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            this.writer = Files.newBufferedWriter(segment, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW);
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível abrir o segmento de gravação " + segment, e);
+        }
+        this.writerExecutor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "ai-recorder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Gravando respostas do Gemini em {}", segment);
+    }
+
+    public boolean isRecording() {
+        return writerExecutor != null;
+    }
+
+    public void record(String prompt, long latencyNanos, String responseText) {
+        if (!isRecording()) {
+            return;
+        }
+        RecordedResponse entry = new RecordedResponse(fingerprint(prompt),
+                TimeUnit.NANOSECONDS.toMillis(latencyNanos), responseText);
+        writerExecutor.execute(() -> append(entry));
+    }
+
+    // Só a thread de escrita mexe no writer; flush por linha para o segmento valer mesmo se o processo cair
+    private void append(RecordedResponse entry) {
+        try {
+            writer.write(objectMapper.writeValueAsString(entry));
+            writer.newLine();
+            writer.flush();
+            recorded.increment();
+        } catch (IOException e) {
+            log.warn("Falha ao gravar resposta do Gemini em {}: {}", segment, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        if (!isRecording()) {
+            return;
+        }
+        writerExecutor.shutdown();
+        if (!writerExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Gravações pendentes descartadas ao encerrar");
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Falha ao fechar o segmento de gravação {}: {}", segment, e.getMessage());
+        }
+        log.info("Segmento de gravação {} fechado com {} respostas", segment, (long) recorded.count());
+    }
+
+    /**
+     * Impressão digital do prompt de uma triagem; o prompt individual não leva o id da triagem, então a
+     * mesma situação clínica tem a mesma impressão em qualquer execução.
+     */
+    public static String fingerprint(String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(prompt.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.resilience;
+
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiCircuitBreakerProperties;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Circuit breaker das chamadas ao Gemini. Conta como falha só o que indica Gemini degradado (5xx, timeout,
+ * erro de conexão); 429 é cota e fica com o rate limiter. Aberto, as análises vão direto para o fallback
+ * por regras sem esperar timeout nem retries; depois de wait-duration-in-open-state, algumas chamadas de
+ * teste decidem se o circuito fecha.
+ */
+@Slf4j
+@Component
+public class GeminiCircuitBreaker {
+
+    public static final String NAME = "gemini";
+
+    private final AiCircuitBreakerProperties properties;
+    private final CircuitBreaker circuitBreaker;
+
+    public GeminiCircuitBreaker(AiCircuitBreakerProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(properties.getSlidingWindowSize())
+                .minimumNumberOfCalls(properties.getMinimumNumberOfCalls())
+                .failureRateThreshold(properties.getFailureRateThreshold().floatValue())
+                .slowCallRateThreshold(properties.getSlowCallRateThreshold().floatValue())
+                .slowCallDurationThreshold(properties.getSlowCallDuration())
+                .waitDurationInOpenState(properties.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(properties.getPermittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordException(GeminiCircuitBreaker::isDegradation)
+                .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        this.circuitBreaker = registry.circuitBreaker(NAME);
+        this.circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Circuit breaker do Gemini: {}", event.getStateTransition()));
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+    }
+
+    /**
+     * Aplica o circuito a uma tentativa de chamada; com o circuito aberto falha com
+     * {@link CallNotPermittedException} sem assinar a chamada.
+     */
+    public <T> Mono<T> protect(Mono<T> call) {
+        if (!properties.getEnabled()) {
+            return call;
+        }
+        return call.transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    /**
+     * Verificação barata, sem consumir permissão do half-open, usada antes de reservar vaga e cota.
+     */
+    public boolean isOpen() {
+        if (!properties.getEnabled()) {
+            return false;
+        }
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    public CallNotPermittedException openException() {
+        return CallNotPermittedException.createCallNotPermittedException(circuitBreaker);
+    }
+
+    public Snapshot snapshot() {
+        CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+        return new Snapshot(
+                properties.getEnabled() ? circuitBreaker.getState().name() : "DISABLED",
+                metrics.getFailureRate(),
+                metrics.getSlowCallRate(),
+                metrics.getNumberOfBufferedCalls(),
+                metrics.getNumberOfNotPermittedCalls()
+        );
+    }
+
+    private static boolean isDegradation(Throwable throwable) {
+        if (throwable instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError();
+        }
+        return throwable instanceof TimeoutException || throwable instanceof WebClientRequestException;
+    }
+
+    // Taxas em percentual; -1 enquanto a janela não tem minimum-number-of-calls
+    public record Snapshot(String state, float failureRate, float slowCallRate, int bufferedCalls,
+                           long notPermittedCalls) {
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.resilience;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expõe o circuito do Gemini em /actuator/health. Fica UP mesmo aberto: a triagem segue pelo fallback
+ * por regras e derrubar o health reiniciaria o container sem resolver nada no Gemini.
+ */
+@Component
+@RequiredArgsConstructor
+public class GeminiCircuitBreakerHealthIndicator implements HealthIndicator {
+
+    private final GeminiCircuitBreaker circuitBreaker;
+
+    @Override
+    public Health health() {
+        GeminiCircuitBreaker.Snapshot snapshot = circuitBreaker.snapshot();
+        return Health.up()
+                .withDetail("state", snapshot.state())
+                .withDetail("failureRate", snapshot.failureRate())
+                .withDetail("slowCallRate", snapshot.slowCallRate())
+                .withDetail("bufferedCalls", snapshot.bufferedCalls())
+                .withDetail("notPermittedCalls", snapshot.notPermittedCalls())
+                .build();
+    }
+}
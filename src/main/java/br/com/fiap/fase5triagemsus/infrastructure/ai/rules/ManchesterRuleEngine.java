@@ -0,0 +1,223 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.rules;
+
+import br.com.fiap.fase5triagemsus.domain.entities.Patient;
+import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.domain.services.AITriageService.TriageAnalysisResult;
+import br.com.fiap.fase5triagemsus.domain.valueobjects.Symptom;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.cache.ClinicalFingerprint;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiRulesProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Primeira passada do Protocolo de Manchester, em memória: classifica os casos evidentes (inconsciência,
+ * hemorragia grave, dor torácica intensa...) a partir de descrição, intensidade e localização dos sintomas
+ * e da faixa etária. Só as triagens que nenhuma regra cobre seguem para a IA. As regras vêm de
+ * {@code triage.ai.rules.location}; um arquivo inválido impede a subida da aplicação.
+ */
+@Slf4j
+@Component
+public class ManchesterRuleEngine {
+
+    // "sem febre", "não tem dor no peito", "nega ter convulsão": uma negação até NEGATION_WINDOW palavras antes
+    // do termo, dentro da mesma oração, anula a regra
+    private static final Set<String> NEGATIONS = Set.of("sem", "nao", "nega", "negou", "nunca", "nem");
+    private static final int NEGATION_WINDOW = 3;
+
+    // Orações terminam na pontuação ou numa conjunção adversativa: "dor de cabeça, nega dor no peito" são duas
+    private static final Pattern CLAUSE_PUNCTUATION = Pattern.compile("[,;.:!?\\n]+");
+    private static final Pattern CLAUSE_CONJUNCTION = Pattern.compile(" (?:mas|porem|entretanto) ");
+
+    private final AiRulesProperties properties;
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Counter unmatched;
+
+    private volatile List<CompiledRule> rules = List.of();
+
+    public ManchesterRuleEngine(AiRulesProperties properties, ResourceLoader resourceLoader, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.unmatched = decisions(meterRegistry, "none");
+    }
+
+    @PostConstruct
+    void load() {
+        if (!properties.getEnabled()) {
+            return;
+        }
+        Resource resource = resourceLoader.getResource(properties.getLocation());
+        try (InputStream input = resource.getInputStream()) {
+            RuleSet ruleSet = objectMapper.readValue(input, RuleSet.class);
+            List<CompiledRule> compiled = new ArrayList<>();
+            for (Rule rule : ruleSet.rules()) {
+                compiled.add(compile(rule));
+            }
+            // A regra mais grave vence quando mais de uma se aplica
+            compiled.sort(Comparator.comparing(rule -> rule.priority().getLevel()));
+            this.rules = List.copyOf(compiled);
+            log.info("Regras de Manchester carregadas: {} (versão {})", rules.size(), ruleSet.version());
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao carregar regras de triagem de " + properties.getLocation(), e);
+        }
+    }
+
+    /**
+     * Classificação por regra, ou vazio se o caso for ambíguo e precisar da IA.
+     */
+    public Optional<TriageAnalysisResult> classify(Triage triage, Patient patient) {
+        if (!properties.getEnabled()) {
+            return Optional.empty();
+        }
+
+        List<NormalizedSymptom> symptoms = triage.getSymptoms().stream().map(NormalizedSymptom::of).toList();
+        for (CompiledRule rule : rules) {
+            for (NormalizedSymptom symptom : symptoms) {
+                if (rule.matches(symptom, patient)) {
+                    rule.counter().increment();
+                    return Optional.of(new TriageAnalysisResult(rule.priority(), rule.recommendation(),
+                            String.format("Regra '%s' do Protocolo de Manchester aplicada ao sintoma: %s",
+                                    rule.id(), symptom.source()),
+                            rule.confidence()));
+                }
+            }
+        }
+        unmatched.increment();
+        return Optional.empty();
+    }
+
+    private CompiledRule compile(Rule rule) {
+        if (rule.id() == null || rule.priority() == null || rule.recommendation() == null
+                || rule.keywords() == null || rule.keywords().isEmpty()) {
+            throw new IllegalStateException("Regra de triagem incompleta: " + rule.id());
+        }
+        return new CompiledRule(
+                rule.id(),
+                rule.priority(),
+                padAll(rule.keywords()),
+                rule.locations() != null ? padAll(rule.locations()) : List.of(),
+                rule.minIntensity() != null ? rule.minIntensity() : 1,
+                rule.ageGroup(),
+                rule.confidence() != null ? rule.confidence() : 0.95,
+                rule.recommendation(),
+                decisions(meterRegistry, rule.id())
+        );
+    }
+
+    // Termos e textos ficam entre espaços para a busca casar só palavras inteiras: " dor " não casa com "dormência"
+    private static String pad(String text) {
+        return " " + ClinicalFingerprint.normalize(text) + " ";
+    }
+
+    private static List<String> padAll(List<String> terms) {
+        return terms.stream().map(ManchesterRuleEngine::pad).filter(term -> !term.isBlank()).toList();
+    }
+
+    private static boolean containsTerm(String padded, String paddedTerm) {
+        int index = padded.indexOf(paddedTerm);
+        while (index >= 0) {
+            if (!isNegated(padded, index)) {
+                return true;
+            }
+            index = padded.indexOf(paddedTerm, index + 1);
+        }
+        return false;
+    }
+
+    private static boolean isNegated(String padded, int termStart) {
+        int previousEnd = termStart;
+        for (int word = 0; word < NEGATION_WINDOW && previousEnd > 0; word++) {
+            int previousStart = padded.lastIndexOf(' ', previousEnd - 1) + 1;
+            if (previousStart < previousEnd && NEGATIONS.contains(padded.substring(previousStart, previousEnd))) {
+                return true;
+            }
+            previousEnd = previousStart - 1;
+        }
+        return false;
+    }
+
+    private static List<String> splitClauses(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return CLAUSE_PUNCTUATION.splitAsStream(text)
+                .map(ClinicalFingerprint::normalize)
+                .flatMap(clause -> CLAUSE_CONJUNCTION.splitAsStream(" " + clause + " "))
+                .map(ManchesterRuleEngine::pad)
+                .filter(clause -> !clause.isBlank())
+                .toList();
+    }
+
+    private static Counter decisions(MeterRegistry meterRegistry, String rule) {
+        return Counter.builder("triage.ai.rules.decisions")
+                .description("Triagens classificadas por regra (rule=none: enviadas à IA)")
+                .tag("rule", rule)
+                .register(meterRegistry);
+    }
+
+    public enum AgeGroup {
+        CHILD, ELDERLY;
+
+        boolean includes(Patient patient) {
+            return this == CHILD ? patient.isChild() : patient.isElderly();
+        }
+    }
+
+    record RuleSet(String version, List<Rule> rules) {
+    }
+
+    record Rule(String id, PriorityLevel priority, List<String> keywords, List<String> locations,
+                Integer minIntensity, AgeGroup ageGroup, Double confidence, String recommendation) {
+    }
+
+    private record NormalizedSymptom(List<String> clauses, String location, int intensity, Symptom source) {
+
+        static NormalizedSymptom of(Symptom symptom) {
+            return new NormalizedSymptom(splitClauses(symptom.getDescription()), pad(symptom.getLocation()),
+                    symptom.getIntensity(), symptom);
+        }
+    }
+
+    private record CompiledRule(String id, PriorityLevel priority, List<String> keywords, List<String> locations,
+                                int minIntensity, AgeGroup ageGroup, double confidence, String recommendation,
+                                Counter counter) {
+
+        boolean matches(NormalizedSymptom symptom, Patient patient) {
+            if (symptom.intensity() < minIntensity || (ageGroup != null && !ageGroup.includes(patient))) {
+                return false;
+            }
+            boolean locatedByField = locations.stream().anyMatch(location -> containsTerm(symptom.location(), location));
+            for (String clause : symptom.clauses()) {
+                if (keywords.stream().noneMatch(keyword -> containsTerm(clause, keyword))) {
+                    continue;
+                }
+                // Localização pode vir no campo próprio ou na mesma oração do termo ("dor no peito")
+                if (locations.isEmpty() || locatedByField
+                        || locations.stream().anyMatch(location -> containsTerm(clause, location))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.services;
+
+import br.com.fiap.fase5triagemsus.domain.entities.Patient;
+import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.domain.services.AITriageService;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.prompts.TriagePromptBuilder.BatchItem;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.provider.AiProvider;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiRouterProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Escolhe o {@link AiProvider} de cada análise. A nota de um provedor é o peso configurado dividido pela
+ * latência média, descontada a taxa de falhas, ambas em EWMA; o sorteio é proporcional à nota, então o
+ * provedor mais lento ou instável recebe menos chamadas sem deixar de ser sondado. Se o escolhido falhar
+ * ou cair no fallback, o próximo mais bem avaliado tenta uma vez.
+ */
+@Slf4j
+@Service
+public class AiProviderRouter implements AITriageService {
+
+    // Provedor com quase todas as chamadas falhando ainda recebe uma fração mínima, para detectar a volta
+    private static final double MIN_HEALTH = 0.05;
+
+    private final AiRouterProperties properties;
+    private final List<ProviderStats> providers;
+
+    public AiProviderRouter(List<AiProvider> providers, AiRouterProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.providers = providers.stream()
+                .map(provider -> new ProviderStats(provider, properties, meterRegistry))
+                .toList();
+        log.info("Provedores de IA: {} (pesos {})",
+                providers.stream().map(AiProvider::name).toList(), properties.getWeights());
+    }
+
+    @Override
+    public TriageAnalysisResult analyzeTriageSituation(Triage triage, Patient patient) {
+        try {
+            return analyzeTriageSituationAsync(triage, patient).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<TriageAnalysisResult> analyzeTriageSituationAsync(Triage triage, Patient patient) {
+        return analyzeTriageSituationAsync(triage, patient, null);
+    }
+
+    @Override
+    public CompletableFuture<TriageAnalysisResult> analyzeTriageSituationAsync(Triage triage, Patient patient,
+                                                                              Consumer<PriorityLevel> onPriority) {
+        return route(provider -> provider.analyze(triage, patient, onPriority), TriageAnalysisResult::fallback)
+                .toFuture();
+    }
+
+    /**
+     * Lote inteiro num só provedor; conta como falha se nenhum item do lote foi analisado.
+     */
+    public Mono<List<TriageAnalysisResult>> analyzeBatch(List<BatchItem> items) {
+        return route(provider -> provider.analyzeBatch(items),
+                results -> results.stream().allMatch(TriageAnalysisResult::fallback));
+    }
+
+    private <T> Mono<T> route(Function<AiProvider, Mono<T>> call, Predicate<T> degraded) {
+        List<ProviderStats> ranked = rank();
+        if (ranked.isEmpty()) {
+            return Mono.error(new IllegalStateException("Nenhum provedor de IA com peso em triage.ai.router.weights"));
+        }
+        return attempt(ranked, 0, call, degraded);
+    }
+
+    private <T> Mono<T> attempt(List<ProviderStats> ranked, int index, Function<AiProvider, Mono<T>> call,
+                                Predicate<T> degraded) {
+        ProviderStats stats = ranked.get(index);
+        Mono<T> result = Mono.defer(() -> {
+            long startedAt = System.nanoTime();
+            return call.apply(stats.provider())
+                    .doOnNext(value -> stats.record(System.nanoTime() - startedAt, degraded.test(value)))
+                    .doOnError(error -> stats.recordError());
+        });
+
+        if (!properties.getFailover() || index + 1 >= ranked.size()) {
+            return result;
+        }
+
+        ProviderStats nextProvider = ranked.get(index + 1);
+        Mono<T> next = Mono.defer(() -> attempt(ranked, index + 1, call, degraded));
+        return result.materialize().flatMap(signal -> {
+            if (signal.isOnError()) {
+                log.warn("Provedor {} falhou, tentando {}: {}", stats.name(), nextProvider.name(),
+                        signal.getThrowable().getMessage());
+                return next;
+            }
+            T value = signal.get();
+            if (value == null) {
+                return Mono.empty();
+            }
+            if (degraded.test(value)) {
+                log.debug("Provedor {} caiu no fallback, tentando {}", stats.name(), nextProvider.name());
+                // Se o próximo também falhar, fica o fallback do primeiro
+                return next.onErrorReturn(value);
+            }
+            return Mono.just(value);
+        });
+    }
+
+    // Primeiro o sorteado pela nota; os demais, para failover, em ordem decrescente de nota
+    private List<ProviderStats> rank() {
+        List<ProviderStats> enabled = new ArrayList<>(providers.size());
+        double total = 0;
+        for (ProviderStats stats : providers) {
+            if (stats.weight() > 0) {
+                enabled.add(stats);
+                total += stats.score();
+            }
+        }
+        if (enabled.size() <= 1) {
+            return enabled;
+        }
+
+        double pick = ThreadLocalRandom.current().nextDouble(total);
+        ProviderStats chosen = enabled.get(enabled.size() - 1);
+        for (ProviderStats stats : enabled) {
+            pick -= stats.score();
+            if (pick < 0) {
+                chosen = stats;
+                break;
+            }
+        }
+
+        enabled.remove(chosen);
+        enabled.sort(Comparator.comparingDouble(ProviderStats::score).reversed());
+        enabled.add(0, chosen);
+        return enabled;
+    }
+
+    private static final class ProviderStats {
+
+        private final AiProvider provider;
+        private final AiRouterProperties properties;
+        private final Counter success;
+        private final Counter degraded;
+        private final Counter failed;
+
+        private volatile double latencySeconds;
+        private volatile double errorRate;
+
+        ProviderStats(AiProvider provider, AiRouterProperties properties, MeterRegistry meterRegistry) {
+            this.provider = provider;
+            this.properties = properties;
+            this.latencySeconds = properties.getInitialLatency().toNanos() / 1e9;
+            this.success = requests(meterRegistry, provider.name(), "success");
+            this.degraded = requests(meterRegistry, provider.name(), "fallback");
+            this.failed = requests(meterRegistry, provider.name(), "error");
+            Gauge.builder("triage.ai.router.latency", this, stats -> stats.latencySeconds)
+                    .description("Latência média (EWMA) do provedor de IA, em segundos")
+                    .tag("provider", provider.name())
+                    .register(meterRegistry);
+            Gauge.builder("triage.ai.router.error.rate", this, stats -> stats.errorRate)
+                    .description("Taxa de falhas (EWMA) do provedor de IA")
+                    .tag("provider", provider.name())
+                    .register(meterRegistry);
+        }
+
+        AiProvider provider() {
+            return provider;
+        }
+
+        String name() {
+            return provider.name();
+        }
+
+        double weight() {
+            return properties.getWeights().getOrDefault(provider.name(), 0.0);
+        }
+
+        double score() {
+            return weight() * Math.max(1 - errorRate, MIN_HEALTH) / Math.max(latencySeconds, 0.001);
+        }
+
+        // Fallback entra na taxa de falhas, mas a latência dele não representa o provedor
+        synchronized void record(long elapsedNanos, boolean fallback) {
+            double alpha = properties.getEwmaAlpha();
+            errorRate += alpha * ((fallback ? 1 : 0) - errorRate);
+            if (fallback) {
+                degraded.increment();
+            } else {
+                latencySeconds += alpha * (elapsedNanos / 1e9 - latencySeconds);
+                success.increment();
+            }
+        }
+
+        synchronized void recordError() {
+            errorRate += properties.getEwmaAlpha() * (1 - errorRate);
+            failed.increment();
+        }
+
+        private static Counter requests(MeterRegistry meterRegistry, String provider, String result) {
+            return Counter.builder("triage.ai.router.requests")
+                    .description("Chamadas roteadas por provedor de IA e resultado")
+                    .tag("provider", provider)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.services;
+
+import br.com.fiap.fase5triagemsus.domain.entities.Patient;
+import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.domain.services.AITriageService;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.batching.TriageBatcher;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.cache.AnalysisCoalescer;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.cache.ClinicalFingerprint;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.cache.TriageAnalysisCache;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiCacheProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Cache e coalescência na frente dos provedores de IA ({@link AiProviderRouter}): apresentações com o mesmo
+ * {@link ClinicalFingerprint} reaproveitam a análise já feita ou a chamada ainda em andamento.
+ * Análises de fallback nunca entram no cache, para que uma falha momentânea da IA não se repita
+ * para todos os pacientes seguintes. Recebe só os casos que o {@link RuleBasedAITriageService} não
+ * classificou por regra. Triagens não urgentes sem análise reaproveitável vão à IA em lote
+ * ({@link TriageBatcher}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CachingAITriageService implements AITriageService {
+
+    private final AiProviderRouter delegate;
+    private final TriageBatcher batcher;
+    private final TriageAnalysisCache cache;
+    private final AnalysisCoalescer coalescer;
+    private final AiCacheProperties cacheProperties;
+
+    @Override
+    public TriageAnalysisResult analyzeTriageSituation(Triage triage, Patient patient) {
+        try {
+            return analyzeTriageSituationAsync(triage, patient).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<TriageAnalysisResult> analyzeTriageSituationAsync(Triage triage, Patient patient) {
+        return analyzeTriageSituationAsync(triage, patient, null);
+    }
+
+    /**
+     * Só a chamada que de fato vai à IA antecipa a prioridade; quem recebe do cache ou pega carona numa
+     * chamada em andamento recebe o resultado completo.
+     */
+    @Override
+    public CompletableFuture<TriageAnalysisResult> analyzeTriageSituationAsync(Triage triage, Patient patient,
+                                                                              Consumer<PriorityLevel> onPriority) {
+        if (!cacheProperties.getEnabled() && !cacheProperties.getCoalescing()) {
+            return load(triage, patient, onPriority);
+        }
+
+        String fingerprint = ClinicalFingerprint.of(triage, patient);
+        if (cacheProperties.getEnabled()) {
+            Optional<TriageAnalysisResult> cached = cache.get(fingerprint);
+            if (cached.isPresent()) {
+                log.debug("Análise da triagem {} servida do cache", triage.getId().getValue());
+                return CompletableFuture.completedFuture(cached.get());
+            }
+        }
+
+        Supplier<CompletableFuture<TriageAnalysisResult>> loader = () -> {
+            long startedAt = System.nanoTime();
+            return load(triage, patient, onPriority)
+                    .thenApply(result -> store(fingerprint, result, startedAt));
+        };
+        return cacheProperties.getCoalescing() ? coalescer.execute(fingerprint, loader) : loader.get();
+    }
+
+    private CompletableFuture<TriageAnalysisResult> load(Triage triage, Patient patient,
+                                                         Consumer<PriorityLevel> onPriority) {
+        return batcher.accepts(triage)
+                ? batcher.submit(triage, patient)
+                : delegate.analyzeTriageSituationAsync(triage, patient, onPriority);
+    }
+
+    private TriageAnalysisResult store(String fingerprint, TriageAnalysisResult result, long startedAt) {
+        if (cacheProperties.getEnabled() && !result.fallback()) {
+            cache.put(fingerprint, result, Duration.ofNanos(System.nanoTime() - startedAt));
+        }
+        return result;
+    }
+}
@@ -4,18 +4,31 @@ package br.com.fiap.fase5triagemsus.infrastructure.ai.services;
 import br.com.fiap.fase5triagemsus.domain.entities.Patient;
 import br.com.fiap.fase5triagemsus.domain.entities.Triage;
 import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
-import br.com.fiap.fase5triagemsus.domain.services.AITriageService;
+import br.com.fiap.fase5triagemsus.domain.services.AITriageService.TriageAnalysisResult;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.concurrency.AdaptiveConcurrencyLimiter;
 import br.com.fiap.fase5triagemsus.infrastructure.ai.dto.GeminiRequestDto;
 import br.com.fiap.fase5triagemsus.infrastructure.ai.dto.GeminiResponseDto;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.hedging.HedgingPolicy;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.metrics.TokenUsageMetrics;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.parsing.TriageResponseParser;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.provider.AiProvider;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.provider.FallbackAnalysis;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.prompts.GeminiContextCache;
 import br.com.fiap.fase5triagemsus.infrastructure.ai.prompts.TriagePromptBuilder;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.prompts.TriageResponseSchema;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.ratelimit.DistributedRateLimiter;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.ratelimit.RetryAfter;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.recording.ResponseRecorder;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.resilience.GeminiCircuitBreaker;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.streaming.PriorityStreamScanner;
 import br.com.fiap.fase5triagemsus.infrastructure.config.properties.GeminiProperties;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientException;
@@ -23,38 +36,124 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class GeminiAITriageService implements AITriageService {
+public class GeminiAITriageService implements AiProvider {
+
+    public static final String NAME = "gemini";
+
+    private static final Duration RETRY_BASE_DELAY = Duration.ofSeconds(1);
+    private static final Duration RETRY_MAX_DELAY = Duration.ofSeconds(30);
+    // Teto de saída do modelo; lotes grandes não pedem mais que isso
+    private static final int BATCH_MAX_OUTPUT_TOKENS = 8192;
 
     @Qualifier("geminiWebClient")
     private final WebClient webClient;
     private final GeminiProperties geminiProperties;
     private final TriagePromptBuilder promptBuilder;
-    private final ObjectMapper objectMapper;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final DistributedRateLimiter rateLimiter;
+    private final GeminiCircuitBreaker circuitBreaker;
+    private final HedgingPolicy hedgingPolicy;
+    private final GeminiContextCache contextCache;
+    private final TokenUsageMetrics tokenUsageMetrics;
+    private final ResponseRecorder responseRecorder;
+    private final MeterRegistry meterRegistry;
+
+    private volatile GeminiRequestDto.Content systemInstruction;
 
     @Override
-    public TriageAnalysisResult analyzeTriageSituation(Triage triage, Patient patient) {
-        try {
-            String prompt = promptBuilder.buildTriagePrompt(triage, patient);
-            GeminiRequestDto.Request request = buildGeminiRequest(prompt);
-            GeminiResponseDto.Response response = callGeminiAPI(request);
-            TriageAnalysisResult result = processGeminiResponse(response);
+    public String name() {
+        return NAME;
+    }
 
-            return result;
+    @Override
+    public Mono<TriageAnalysisResult> analyze(Triage triage, Patient patient, Consumer<PriorityLevel> onPriority) {
+        // Circuito aberto: classificação por regras na hora, sem ocupar vaga, cota ou esperar timeout
+        if (circuitBreaker.isOpen()) {
+            return Mono.fromSupplier(() -> FallbackAnalysis.of(triage, patient, circuitBreaker.openException()));
+        }
+
+        // Com streaming, a prioridade sai uma única vez mesmo com retries e hedge
+        Consumer<PriorityLevel> earlyPriority = onPriority != null && geminiProperties.getStreaming()
+                ? once(onPriority) : null;
+
+        // Sem vaga no limite adaptativo ou sem cota a análise é rejeitada e volta para a fila de retry;
+        // o fallback só é aplicado na última tentativa, em ProcessTriageUseCase
+        return Mono.fromFuture(concurrencyLimiter::acquireAsync)
+                .flatMap(permit -> Mono.fromCallable(() -> promptBuilder.buildTriagePrompt(triage, patient))
+                        .zipWith(contextCache.cachedContentName())
+                        .flatMap(input -> {
+                            String prompt = input.getT1();
+                            String cachedContent = input.getT2().orElse(null);
+                            int maxOutputTokens = geminiProperties.getMaxTokens();
+                            long startedAt = System.nanoTime();
+                            return callGeminiAPI(buildGeminiRequest(prompt, cachedContent, maxOutputTokens,
+                                            TriageResponseSchema.SINGLE),
+                                    estimateTokens(prompt, maxOutputTokens), isSuspectedEmergency(triage),
+                                    earlyPriority)
+                                    .doOnError(error -> contextCache.invalidateIfRejected(cachedContent, error))
+                                    .map(response -> {
+                                        String text = responseText(response);
+                                        responseRecorder.record(prompt, System.nanoTime() - startedAt, text);
+                                        return text;
+                                    });
+                        })
+                        .map(this::parseCounted)
+                        .onErrorResume(e -> !(e instanceof DistributedRateLimiter.QuotaExceededException),
+                                e -> Mono.just(FallbackAnalysis.of(triage, patient, e)))
+                        .doFinally(signal -> permit.release()));
+    }
 
-        } catch (Exception e) {
-            return createFallbackAnalysis(triage, patient, e);
+    /**
+     * Classifica várias triagens numa única chamada ao Gemini, com os resultados na ordem de {@code items}.
+     * Cada item da resposta é validado isoladamente: o que faltar ou vier inválido recebe fallback só para
+     * ele. Uma falha da chamada inteira leva todas ao fallback, exceto falta de cota, que volta para a fila
+     * (e só cai no fallback na última tentativa).
+     */
+    @Override
+    public Mono<List<TriageAnalysisResult>> analyzeBatch(List<TriagePromptBuilder.BatchItem> items) {
+        if (circuitBreaker.isOpen()) {
+            return Mono.fromSupplier(() -> fallbackAll(items, circuitBreaker.openException()));
         }
+
+        return Mono.fromFuture(concurrencyLimiter::acquireAsync)
+                .flatMap(permit -> Mono.fromCallable(() -> promptBuilder.buildBatchPrompt(items))
+                        .zipWith(contextCache.cachedContentName())
+                        .flatMap(input -> {
+                            String prompt = input.getT1();
+                            String cachedContent = input.getT2().orElse(null);
+                            int maxOutputTokens = Math.min(BATCH_MAX_OUTPUT_TOKENS,
+                                    geminiProperties.getMaxTokens() * items.size());
+                            return callGeminiAPI(buildGeminiRequest(prompt, cachedContent, maxOutputTokens,
+                                            TriageResponseSchema.BATCH),
+                                    estimateTokens(prompt, maxOutputTokens), false, null)
+                                    .doOnError(error -> contextCache.invalidateIfRejected(cachedContent, error));
+                        })
+                        .map(response -> demultiplex(items, responseText(response)))
+                        .onErrorResume(e -> !(e instanceof DistributedRateLimiter.QuotaExceededException),
+                                e -> Mono.just(fallbackAll(items, e)))
+                        .doFinally(signal -> permit.release()));
     }
 
 
-    private GeminiRequestDto.Request buildGeminiRequest(String prompt) {
+    private GeminiRequestDto.Request buildGeminiRequest(String prompt, String cachedContent, int maxOutputTokens,
+                                                        GeminiRequestDto.Schema responseSchema) {
         GeminiRequestDto.Part part = GeminiRequestDto.Part.builder()
                 .text(prompt)
                 .build();
@@ -65,35 +164,202 @@ public class GeminiAITriageService implements AITriageService {
 
         GeminiRequestDto.GenerationConfig config = GeminiRequestDto.GenerationConfig.builder()
                 .temperature(geminiProperties.getTemperature())
-                .maxOutputTokens(geminiProperties.getMaxTokens())
+                .maxOutputTokens(maxOutputTokens)
                 .topP(0.8)
                 .topK(40)
+                .responseMimeType(geminiProperties.getStructuredOutput() ? "application/json" : null)
+                .responseSchema(geminiProperties.getStructuredOutput() ? responseSchema : null)
                 .build();
 
+        // Com cachedContent o protocolo já está no Gemini; sem ele vai como systemInstruction, fora do conteúdo
+        GeminiRequestDto.Content systemInstruction = cachedContent != null ? null : systemInstruction();
+        tokenUsageMetrics.recordRequest(prompt.length()
+                + (systemInstruction != null ? promptBuilder.getSystemInstruction().length() : 0));
+
         return GeminiRequestDto.Request.builder()
+                .systemInstruction(systemInstruction)
+                .cachedContent(cachedContent)
                 .contents(List.of(content))
                 .generationConfig(config)
                 .build();
     }
 
 
-    private GeminiResponseDto.Response callGeminiAPI(GeminiRequestDto.Request request) {
-        String endpoint = String.format("/models/%s:generateContent", geminiProperties.getModel());
+    // Montado uma vez: o texto do protocolo é fixo
+    private GeminiRequestDto.Content systemInstruction() {
+        GeminiRequestDto.Content content = systemInstruction;
+        if (content == null) {
+            content = GeminiRequestDto.Content.builder()
+                    .parts(List.of(GeminiRequestDto.Part.builder().text(promptBuilder.getSystemInstruction()).build()))
+                    .build();
+            systemInstruction = content;
+        }
+        return content;
+    }
 
+
+    private Mono<GeminiResponseDto.Response> callGeminiAPI(GeminiRequestDto.Request request, int estimatedTokens,
+                                                           boolean hedged, Consumer<PriorityLevel> earlyPriority) {
+
+        // Cada tentativa consome cota e alimenta o limite adaptativo: latência no sucesso, 429/5xx/timeout
+        // como sobrecarga
+        Supplier<Mono<GeminiResponseDto.Response>> attempt = () -> rateLimiter.acquire(estimatedTokens)
+                .then(Mono.defer(() -> {
+                    long startedAt = System.nanoTime();
+                    Mono<GeminiResponseDto.Response> call = earlyPriority != null
+                            ? streamGenerateContent(request, earlyPriority, startedAt)
+                            : generateContent(request);
+                    return call
+                            .timeout(geminiProperties.getTimeout())
+                            .transform(circuitBreaker::protect)
+                            .doOnSuccess(response -> {
+                                Duration latency = Duration.ofNanos(System.nanoTime() - startedAt);
+                                concurrencyLimiter.onSuccess(latency);
+                                hedgingPolicy.recordLatency(latency);
+                            })
+                            .doOnError(this::recordOverload);
+                }));
+
+        return (hedged ? hedgingPolicy.hedge(attempt) : Mono.defer(attempt))
+                .retryWhen(retryPolicy());
+    }
+
+    private Mono<GeminiResponseDto.Response> generateContent(GeminiRequestDto.Request request) {
         return webClient
                 .post()
-                .uri(endpoint)
+                .uri(String.format("/models/%s:generateContent", geminiProperties.getModel()))
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(GeminiResponseDto.Response.class)
-                .timeout(geminiProperties.getTimeout())
-                .retryWhen(Retry.backoff(geminiProperties.getMaxRetries(), Duration.ofSeconds(1))
-                        .filter(this::isRetryableError))
-                .block();
+                .bodyToMono(GeminiResponseDto.Response.class);
+    }
+
+    /**
+     * Mesma chamada via streamGenerateContent (SSE): cada pedaço do texto passa pelo
+     * {@link PriorityStreamScanner} e a prioridade é entregue assim que aparece; o resultado é a resposta
+     * remontada a partir dos pedaços.
+     */
+    private Mono<GeminiResponseDto.Response> streamGenerateContent(GeminiRequestDto.Request request,
+                                                                   Consumer<PriorityLevel> earlyPriority,
+                                                                   long startedAt) {
+        PriorityStreamScanner scanner = new PriorityStreamScanner();
+        return webClient
+                .post()
+                .uri(String.format("/models/%s:streamGenerateContent?alt=sse", geminiProperties.getModel()))
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToFlux(GeminiResponseDto.Response.class)
+                .doOnNext(chunk -> scanner.accept(chunkText(chunk)).ifPresent(priority -> {
+                    Timer.builder("triage.ai.gemini.priority.latency")
+                            .description("Tempo até a prioridade chegar no stream do Gemini")
+                            .register(meterRegistry)
+                            .record(Duration.ofNanos(System.nanoTime() - startedAt));
+                    earlyPriority.accept(priority);
+                }))
+                .collectList()
+                .map(GeminiAITriageService::mergeChunks);
+    }
+
+    private static String chunkText(GeminiResponseDto.Response chunk) {
+        if (chunk.candidates() == null || chunk.candidates().isEmpty()) {
+            return null;
+        }
+        GeminiResponseDto.Content content = chunk.candidates().get(0).content();
+        if (content == null || content.parts() == null || content.parts().isEmpty()) {
+            return null;
+        }
+        return content.parts().get(0).text();
+    }
+
+    // Texto concatenado dos pedaços; finishReason e usageMetadata vêm completos no último
+    private static GeminiResponseDto.Response mergeChunks(List<GeminiResponseDto.Response> chunks) {
+        StringBuilder text = new StringBuilder();
+        String finishReason = null;
+        GeminiResponseDto.UsageMetadata usage = null;
+        for (GeminiResponseDto.Response chunk : chunks) {
+            String part = chunkText(chunk);
+            if (part != null) {
+                text.append(part);
+            }
+            if (chunk.candidates() != null && !chunk.candidates().isEmpty()
+                    && chunk.candidates().get(0).finishReason() != null) {
+                finishReason = chunk.candidates().get(0).finishReason();
+            }
+            if (chunk.usageMetadata() != null) {
+                usage = chunk.usageMetadata();
+            }
+        }
+
+        if (text.isEmpty()) {
+            return GeminiResponseDto.Response.builder().usageMetadata(usage).build();
+        }
+        GeminiResponseDto.Candidate candidate = GeminiResponseDto.Candidate.builder()
+                .content(GeminiResponseDto.Content.builder()
+                        .parts(List.of(GeminiResponseDto.Part.builder().text(text.toString()).build()))
+                        .role("model")
+                        .build())
+                .finishReason(finishReason)
+                .index(0)
+                .build();
+        return GeminiResponseDto.Response.builder().candidates(List.of(candidate)).usageMetadata(usage).build();
+    }
+
+    private static Consumer<PriorityLevel> once(Consumer<PriorityLevel> onPriority) {
+        AtomicBoolean delivered = new AtomicBoolean();
+        return priority -> {
+            if (delivered.compareAndSet(false, true)) {
+                onPriority.accept(priority);
+            }
+        };
+    }
+
+    /**
+     * Mesmo critério que manda a mensagem para a lane de alta prioridade, mais qualquer sintoma grave.
+     */
+    public static boolean isSuspectedEmergency(Triage triage) {
+        return triage.isUrgent() || triage.hasSevereSymptoms();
+    }
+
+    /**
+     * Em 429 espera o tempo pedido pelo Gemini; nos demais erros transitórios, backoff exponencial com
+     * jitter para que os nós não repitam a chamada no mesmo instante.
+     */
+    private Retry retryPolicy() {
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            Throwable failure = signal.failure();
+            if (signal.totalRetries() >= geminiProperties.getMaxRetries() || !isRetryableError(failure)) {
+                return Mono.error(failure);
+            }
+            return Mono.delay(retryDelay(failure, signal.totalRetries()));
+        }));
+    }
+
+    private Duration retryDelay(Throwable failure, long attempt) {
+        if (failure instanceof WebClientResponseException responseException
+                && responseException.getStatusCode().value() == 429) {
+            Optional<Duration> retryAfter = RetryAfter.of(responseException);
+            if (retryAfter.isPresent()) {
+                return retryAfter.get();
+            }
+        }
+        long ceiling = Math.min(RETRY_MAX_DELAY.toMillis(), RETRY_BASE_DELAY.toMillis() << Math.min(attempt, 16));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+    }
+
+    // Aproximação de ~4 caracteres por token no protocolo e no prompt, mais o teto de saída configurado;
+    // tokens servidos pelo cachedContent continuam contando na cota
+    private int estimateTokens(String prompt, int maxOutputTokens) {
+        return (promptBuilder.getSystemInstruction().length() + prompt.length()) / 4 + maxOutputTokens;
     }
 
 
-    private TriageAnalysisResult processGeminiResponse(GeminiResponseDto.Response response) {
+    private String responseText(GeminiResponseDto.Response response) {
+        tokenUsageMetrics.recordUsage(response.usageMetadata());
+        if (response.usageMetadata() != null) {
+            log.debug("Tokens Gemini: entrada {} (cache {}), saída {}", response.usageMetadata().promptTokenCount(),
+                    response.usageMetadata().cachedContentTokenCount(), response.usageMetadata().candidatesTokenCount());
+        }
+
         if (response.candidates() == null || response.candidates().isEmpty()) {
             throw new AIAnalysisException("Nenhuma resposta válida recebida da API Gemini");
         }
@@ -103,76 +369,120 @@ public class GeminiAITriageService implements AITriageService {
             throw new AIAnalysisException("Conteúdo da resposta vazio");
         }
 
-        String responseText = candidate.content().parts().get(0).text();
-
-        return parseTriageResponse(responseText);
+        return candidate.content().parts().get(0).text();
     }
 
 
-    private TriageAnalysisResult parseTriageResponse(String responseText) {
+    private TriageAnalysisResult parseCounted(String responseText) {
         try {
-            String jsonText = extractJsonFromResponse(responseText);
-
-            JsonNode jsonNode = objectMapper.readTree(jsonText);
+            TriageAnalysisResult result = parseTriageResponse(responseText);
+            countParse(true, 1);
+            return result;
+        } catch (AIAnalysisException e) {
+            countParse(false, 1);
+            throw e;
+        }
+    }
 
-            String priorityStr = jsonNode.get("priority").asText();
-            String recommendation = jsonNode.get("recommendation").asText();
-            String reasoning = jsonNode.get("reasoning").asText();
-            double confidence = jsonNode.get("confidence").asDouble();
+    // Cada falha de parse é uma chamada inteira ao Gemini jogada fora; a tag structured separa o antes e o depois
+    private void countParse(boolean success, int analyses) {
+        Counter.builder("triage.ai.gemini.parse")
+                .description("Análises lidas da resposta do Gemini, por resultado do parse")
+                .tag("result", success ? "success" : "failure")
+                .tag("structured", String.valueOf(geminiProperties.getStructuredOutput()))
+                .register(meterRegistry)
+                .increment(analyses);
+    }
 
-            PriorityLevel priority = PriorityLevel.valueOf(priorityStr);
 
-            return new TriageAnalysisResult(priority, recommendation, reasoning, confidence);
+    /**
+     * Análise a partir do texto devolvido pelo modelo; também usada pelo replay das gravações.
+     */
+    public static TriageAnalysisResult parseTriageResponse(String responseText) {
+        try {
+            return toAnalysisResult(TriageResponseParser.parseObject(responseText));
 
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             throw new AIAnalysisException("Erro ao processar resposta da IA: " + e.getMessage());
-        } catch (IllegalArgumentException e) {
-            throw new AIAnalysisException("Prioridade inválida retornada pela IA");
         }
     }
 
 
-    private String extractJsonFromResponse(String responseText) {
-        int startIndex = responseText.indexOf('{');
-        int endIndex = responseText.lastIndexOf('}');
+    private static TriageAnalysisResult toAnalysisResult(TriageResponseParser.Fields fields) {
+        if (fields.priority() == null || fields.recommendation() == null || fields.reasoning() == null
+                || fields.confidence() == null) {
+            throw new AIAnalysisException("Campos obrigatórios ausentes na resposta da IA");
+        }
 
-        if (startIndex == -1 || endIndex == -1 || startIndex >= endIndex) {
-            throw new AIAnalysisException("JSON não encontrado na resposta da IA");
+        PriorityLevel priority;
+        try {
+            priority = PriorityLevel.valueOf(fields.priority());
+        } catch (IllegalArgumentException e) {
+            throw new AIAnalysisException("Prioridade inválida retornada pela IA");
         }
 
-        return responseText.substring(startIndex, endIndex + 1);
+        try {
+            return new TriageAnalysisResult(priority, fields.recommendation(), fields.reasoning(), fields.confidence());
+        } catch (IllegalArgumentException e) {
+            throw new AIAnalysisException("Resposta inválida da IA: " + e.getMessage());
+        }
     }
 
 
-    private TriageAnalysisResult createFallbackAnalysis(Triage triage, Patient patient, Exception originalError) {
-        PriorityLevel fallbackPriority = determineFallbackPriority(triage, patient);
-
-        String recommendation = String.format(
-                "ATENÇÃO: Análise realizada em modo de emergência devido a falha no sistema de IA. " +
-                        "Recomenda-se avaliação médica presencial imediata. " +
-                        "Paciente apresenta %d sintoma(s), sendo %d grave(s). " +
-                        "Erro original: %s",
-                triage.getSymptoms().size(),
-                triage.countSevereSymptoms(),
-                originalError.getMessage()
-        );
+    private List<TriageAnalysisResult> demultiplex(List<TriagePromptBuilder.BatchItem> items, String responseText) {
+        List<TriageResponseParser.Fields> elements;
+        try {
+            elements = TriageResponseParser.parseArray(responseText);
+        } catch (IOException e) {
+            countParse(false, items.size());
+            throw new AIAnalysisException("Erro ao processar resposta em lote da IA: " + e.getMessage());
+        }
 
-        String reasoning = "Classificação conservadora devido a falha no sistema de IA. " +
-                "Baseada em análise de sintomas graves e características do paciente.";
+        Map<String, TriageResponseParser.Fields> byTriageId = new HashMap<>();
+        for (TriageResponseParser.Fields element : elements) {
+            if (element.triageId() != null && !element.triageId().isEmpty()) {
+                byTriageId.putIfAbsent(element.triageId(), element);
+            }
+        }
 
-        return new TriageAnalysisResult(fallbackPriority, recommendation, reasoning, 0.5);
+        List<TriageAnalysisResult> results = new ArrayList<>(items.size());
+        for (TriagePromptBuilder.BatchItem item : items) {
+            String triageId = item.triage().getId().getValue();
+            TriageResponseParser.Fields element = byTriageId.get(triageId);
+            try {
+                if (element == null) {
+                    throw new AIAnalysisException("Triagem ausente na resposta em lote da IA");
+                }
+                results.add(toAnalysisResult(element));
+                countParse(true, 1);
+            } catch (AIAnalysisException e) {
+                countParse(false, 1);
+                log.warn("Triagem {} sem resposta válida no lote, usando fallback: {}", triageId, e.getMessage());
+                results.add(FallbackAnalysis.of(item.triage(), item.patient(), e));
+            }
+        }
+        return results;
     }
 
-    private PriorityLevel determineFallbackPriority(Triage triage, Patient patient) {
-        if (triage.countSevereSymptoms() > 0) {
-            return patient.isElderly() || patient.isChild() ? PriorityLevel.VERY_URGENT : PriorityLevel.URGENT;
-        }
 
-        if (triage.countModerateSymptoms() >= 3) {
-            return PriorityLevel.URGENT;
-        }
+    private List<TriageAnalysisResult> fallbackAll(List<TriagePromptBuilder.BatchItem> items, Throwable originalError) {
+        return items.stream()
+                .map(item -> FallbackAnalysis.of(item.triage(), item.patient(), originalError))
+                .toList();
+    }
 
-        return PriorityLevel.LESS_URGENT;
+    private void recordOverload(Throwable throwable) {
+        if (throwable instanceof WebClientResponseException responseException) {
+            int statusCode = responseException.getStatusCode().value();
+            if (statusCode == 429) {
+                concurrencyLimiter.onDropped("throttled");
+                RetryAfter.of(responseException).ifPresent(rateLimiter::pause);
+            } else if (statusCode >= 500) {
+                concurrencyLimiter.onDropped("server_error");
+            }
+        } else if (throwable instanceof TimeoutException) {
+            concurrencyLimiter.onDropped("timeout");
+        }
     }
 
     private boolean isRetryableError(Throwable throwable) {
@@ -0,0 +1,59 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.services;
+
+import br.com.fiap.fase5triagemsus.domain.entities.Patient;
+import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.domain.services.AITriageService;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.rules.ManchesterRuleEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Entrada das análises: casos evidentes saem do {@link ManchesterRuleEngine} em microssegundos e só os
+ * ambíguos seguem para cache, coalescência e Gemini ({@link CachingAITriageService}).
+ */
+@Slf4j
+@Service
+@Primary
+@RequiredArgsConstructor
+public class RuleBasedAITriageService implements AITriageService {
+
+    private final ManchesterRuleEngine ruleEngine;
+    private final CachingAITriageService delegate;
+
+    @Override
+    public TriageAnalysisResult analyzeTriageSituation(Triage triage, Patient patient) {
+        Optional<TriageAnalysisResult> byRule = classify(triage, patient);
+        return byRule.isPresent() ? byRule.get() : delegate.analyzeTriageSituation(triage, patient);
+    }
+
+    @Override
+    public CompletableFuture<TriageAnalysisResult> analyzeTriageSituationAsync(Triage triage, Patient patient) {
+        Optional<TriageAnalysisResult> byRule = classify(triage, patient);
+        return byRule.isPresent()
+                ? CompletableFuture.completedFuture(byRule.get())
+                : delegate.analyzeTriageSituationAsync(triage, patient);
+    }
+
+    @Override
+    public CompletableFuture<TriageAnalysisResult> analyzeTriageSituationAsync(Triage triage, Patient patient,
+                                                                              Consumer<PriorityLevel> onPriority) {
+        Optional<TriageAnalysisResult> byRule = classify(triage, patient);
+        return byRule.isPresent()
+                ? CompletableFuture.completedFuture(byRule.get())
+                : delegate.analyzeTriageSituationAsync(triage, patient, onPriority);
+    }
+
+    private Optional<TriageAnalysisResult> classify(Triage triage, Patient patient) {
+        Optional<TriageAnalysisResult> result = ruleEngine.classify(triage, patient);
+        result.ifPresent(analysis -> log.debug("Triagem {} classificada por regra como {}",
+                triage.getId().getValue(), analysis.priority()));
+        return result;
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.streaming;
+
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+
+import java.util.Optional;
+
+/**
+ * Lê o texto da resposta do Gemini em pedaços, conforme chega do stream, e devolve a prioridade assim que o
+ * valor do campo "priority" estiver completo. A busca continua de onde parou no pedaço anterior, então o
+ * texto é examinado praticamente uma vez só. Uma instância por chamada; não é thread-safe.
+ */
+public final class PriorityStreamScanner {
+
+    private static final String KEY = "\"priority\"";
+
+    private final StringBuilder buffer = new StringBuilder(256);
+    private int scanFrom;
+    private boolean done;
+
+    /**
+     * Acrescenta um pedaço do texto; devolve a prioridade na primeira vez que ela puder ser lida. Valor
+     * desconhecido encerra a busca sem prioridade antecipada, e a validação fica para a resposta completa.
+     */
+    public Optional<PriorityLevel> accept(String chunk) {
+        if (done || chunk == null || chunk.isEmpty()) {
+            return Optional.empty();
+        }
+        buffer.append(chunk);
+
+        while (true) {
+            int key = buffer.indexOf(KEY, scanFrom);
+            if (key < 0) {
+                // A chave pode estar partida entre dois pedaços
+                scanFrom = Math.max(scanFrom, buffer.length() - KEY.length() + 1);
+                return Optional.empty();
+            }
+
+            int colon = skipWhitespace(key + KEY.length());
+            if (colon >= buffer.length()) {
+                scanFrom = key;
+                return Optional.empty();
+            }
+            if (buffer.charAt(colon) != ':') {
+                scanFrom = key + 1;
+                continue;
+            }
+
+            int open = skipWhitespace(colon + 1);
+            if (open >= buffer.length()) {
+                scanFrom = key;
+                return Optional.empty();
+            }
+            if (buffer.charAt(open) != '"') {
+                scanFrom = key + 1;
+                continue;
+            }
+
+            int close = buffer.indexOf("\"", open + 1);
+            if (close < 0) {
+                scanFrom = key;
+                return Optional.empty();
+            }
+
+            done = true;
+            try {
+                return Optional.of(PriorityLevel.valueOf(buffer.substring(open + 1, close).trim()));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private int skipWhitespace(int index) {
+        while (index < buffer.length() && Character.isWhitespace(buffer.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -1,7 +1,10 @@
 package br.com.fiap.fase5triagemsus.infrastructure.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -12,6 +15,7 @@ import java.util.concurrent.Executor;
 public class AsyncConfig {
 
     @Bean("triageProcessingExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
     public Executor triageProcessingExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
@@ -25,6 +29,7 @@ public class AsyncConfig {
     }
 
     @Bean("queueConsumerExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
     public Executor queueConsumerExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(3);
@@ -37,6 +42,20 @@ public class AsyncConfig {
         return executor;
     }
 
+    // Com spring.threads.virtual.enabled=true em Java 21+, cada consumidor e cada análise roda em uma
+    // virtual thread; a concorrência passa a ser limitada por triage.queue.max-in-flight-analyses
+    @Bean("triageProcessingExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualTriageProcessingExecutor() {
+        return virtualThreadExecutor("triage-proc-vt-");
+    }
+
+    @Bean("queueConsumerExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualQueueConsumerExecutor() {
+        return virtualThreadExecutor("queue-consumer-vt-");
+    }
+
     @Bean("scheduledTaskExecutor")
     public Executor scheduledTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -49,4 +68,11 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    private SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setTaskTerminationTimeout(60_000);
+        return executor;
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.fiap.fase5triagemsus.infrastructure.config;
 
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
@@ -11,15 +12,28 @@ public class QueueConfig {
     public static final String TRIAGE_PRIORITY_QUEUE = "triage:priority:queue";
     public static final String TRIAGE_RETRY_QUEUE = "triage:retry:queue";
     public static final String TRIAGE_DLQ = "triage:dlq";
+    public static final String DELAYED_SET = "triage:delayed";
 
     public static final String PROCESSING_SET = "triage:processing";
+    public static final String PROCESSING_LEASES = PROCESSING_SET + ":leases";
+    public static final String PROCESSING_EXPIRY = PROCESSING_SET + ":expiry";
     public static final String COMPLETED_SET = "triage:completed";
     public static final String FAILED_SET = "triage:failed";
 
+    public static final String STREAM_SUFFIX = ":stream";
+
     public static final int DEFAULT_MAX_RETRIES = 3;
     public static final int DEFAULT_RETRY_DELAY_SECONDS = 30;
     public static final int DEFAULT_PROCESSING_TIMEOUT_MINUTES = 10;
 
+    public static String priorityLane(PriorityLevel priority) {
+        return TRIAGE_PRIORITY_QUEUE + ":" + priority.name().toLowerCase();
+    }
+
+    public static String streamKey(String queueName) {
+        return queueName + STREAM_SUFFIX;
+    }
+
     public static class QueueNames {
         public static final String TRIAGE_MAIN = TRIAGE_QUEUE;
         public static final String TRIAGE_HIGH_PRIORITY = TRIAGE_PRIORITY_QUEUE;
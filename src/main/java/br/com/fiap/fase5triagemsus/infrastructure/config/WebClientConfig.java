@@ -2,13 +2,23 @@ package br.com.fiap.fase5triagemsus.infrastructure.config;
 
 
 
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiStandInProperties;
 import br.com.fiap.fase5triagemsus.infrastructure.config.properties.GeminiProperties;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.ssl.SslContextBuilder;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 
 @Configuration
@@ -16,11 +26,61 @@ import org.springframework.web.reactive.function.client.WebClient;
 public class WebClientConfig {
 
     private final GeminiProperties geminiProperties;
+    private final AiStandInProperties standInProperties;
+
+    /**
+     * Pool próprio do Gemini, separado do pool global do Reactor Netty. Publica no Micrometer as métricas
+     * {@code reactor.netty.connection.provider.*} com a tag {@code name=gemini} (conexões ativas, ociosas,
+     * pendentes e, em HTTP/2, streams ativos).
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider geminiConnectionProvider() {
+        GeminiProperties.ConnectionPool pool = geminiProperties.getConnectionPool();
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("gemini")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInterval())
+                .metrics(true);
+
+        if (useHttp2()) {
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(pool.getMaxConnections())
+                    .minConnections(Math.min(pool.getMinConnections(), pool.getMaxConnections()))
+                    .maxConcurrentStreams(pool.getMaxConcurrentStreams())
+                    .build());
+        }
+        return builder.build();
+    }
 
     @Bean("geminiWebClient")
-    public WebClient geminiWebClient() {
+    public WebClient geminiWebClient(ConnectionProvider geminiConnectionProvider) {
+        GeminiProperties.ConnectionPool pool = geminiProperties.getConnectionPool();
+        HttpClient httpClient = HttpClient.create(geminiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                // Sem a query string, para a tag uri não crescer sem limite
+                .metrics(true, uri -> uri.split("\\?", 2)[0]);
+
+        // Um único contexto TLS por cliente: o cache de sessões dele permite retomar o handshake
+        if (useHttp2()) {
+            httpClient = httpClient
+                    .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                    .secure(spec -> spec.sslContext(Http2SslContextSpec.forClient().configure(this::tlsSessionCache)));
+        } else if (isHttps()) {
+            httpClient = httpClient
+                    .secure(spec -> spec.sslContext(Http11SslContextSpec.forClient().configure(this::tlsSessionCache)));
+        }
+
+        // Carrega transporte nativo, resolvedor DNS e contexto TLS na subida, não na primeira triagem
+        httpClient.warmup().block();
+
         return WebClient.builder()
                 .baseUrl(geminiProperties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .defaultHeader(HttpHeaders.USER_AGENT, "Triage-AI-SUS/1.0")
                 .defaultHeader("x-goog-api-key", geminiProperties.getApiKey())
@@ -29,4 +89,28 @@ public class WebClientConfig {
                         .maxInMemorySize(1024 * 1024))
                 .build();
     }
-}
\ No newline at end of file
+
+    @Bean("standInWebClient")
+    public WebClient standInWebClient() {
+        return WebClient.builder()
+                .baseUrl(standInProperties.getBaseUrl())
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader(HttpHeaders.USER_AGENT, "Triage-AI-SUS/1.0")
+                .build();
+    }
+
+    private void tlsSessionCache(SslContextBuilder builder) {
+        GeminiProperties.ConnectionPool pool = geminiProperties.getConnectionPool();
+        builder.sessionCacheSize(pool.getTlsSessionCacheSize())
+                .sessionTimeout(pool.getTlsSessionTimeout().toSeconds());
+    }
+
+    // HTTP/2 só com TLS (ALPN); uma URL http, como um proxy local, segue em HTTP/1.1
+    private boolean useHttp2() {
+        return geminiProperties.getConnectionPool().getHttp2() && isHttps();
+    }
+
+    private boolean isHttps() {
+        return geminiProperties.getBaseUrl().startsWith("https");
+    }
+}
@@ -14,6 +14,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,7 +31,7 @@ import java.util.List;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
-public class TriageJpaEntity {
+public class TriageJpaEntity implements Persistable<String> {
 
     @Id
     @Column(name = "id", nullable = false, length = 36)
@@ -86,6 +87,11 @@ public class TriageJpaEntity {
     @Column(name = "raw_ai_response", columnDefinition = "TEXT")
     private String rawAiResponse;
 
+    // O id é atribuído pelo domínio; sem isso o Spring Data faria merge (SELECT + INSERT) em toda triagem nova
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean newEntity;
+
 
     public static TriageJpaEntity fromDomain(Triage triage) {
         return new TriageJpaEntity(
@@ -104,10 +110,22 @@ public class TriageJpaEntity {
                 triage.getErrorMessage(),
                 triage.getRetryCount() != null ? triage.getRetryCount() : 0,
                 triage.getConfidenceScore(),
-                triage.getRawAiResponse()
+                triage.getRawAiResponse(),
+                true
         );
     }
 
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
     public Triage toDomain() {
         return Triage.restoreWithStatus(
                 TriageId.of(this.id),
@@ -9,6 +9,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -47,6 +49,18 @@ public class PatientRepositoryImpl implements PatientRepository {
         }
     }
 
+    @Override
+    public List<Patient> findAllById(Collection<PatientId> ids) {
+        try {
+            return jpaRepository.findAllById(ids.stream().map(PatientId::getValue).toList())
+                    .stream()
+                    .map(PatientJpaEntity::toDomain)
+                    .toList();
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao buscar pacientes", e);
+        }
+    }
+
     @Override
     public Optional<Patient> findByCpf(String cpf) {
         if (cpf == null || cpf.trim().isEmpty()) {
@@ -45,6 +45,26 @@ public class TriageRepositoryImpl implements TriageRepository {
         }
     }
 
+    /**
+     * Insere triagens novas sem o SELECT prévio do {@link #save}; com hibernate.jdbc.batch_size
+     * os INSERTs saem em lotes JDBC.
+     */
+    @Override
+    public List<Triage> insertAll(List<Triage> triages) {
+        try {
+            List<TriageJpaEntity> entities = triages.stream()
+                    .map(TriageJpaEntity::fromDomain)
+                    .toList();
+
+            return jpaRepository.saveAll(entities)
+                    .stream()
+                    .map(TriageJpaEntity::toDomain)
+                    .toList();
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao salvar lote de triagens", e);
+        }
+    }
+
     @Override
     public Optional<Triage> findById(TriageId id) {
         try {
@@ -0,0 +1,34 @@
+package br.com.fiap.fase5triagemsus.infrastructure.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "triage.ai.cache")
+public class AiCacheProperties {
+
+
+    private Boolean enabled = true;
+
+    // O TTL dos dois níveis vem de triage.business.cache-ttl
+    @Min(value = 1, message = "Cache local deve comportar pelo menos 1 entrada")
+    private Integer localMaxEntries = 10_000;
+
+    // Análises simultâneas com o mesmo fingerprint compartilham uma única chamada, inclusive entre nós
+    private Boolean coalescing = true;
+
+    // Deve cobrir timeout x tentativas da IA; se o nó líder cair, o lock expira sozinho
+    @NotNull(message = "TTL do lock de coalescência é obrigatório")
+    private Duration coalescingLockTtl = Duration.ofSeconds(60);
+
+    // Quanto um nó espera pelo resultado de outro antes de chamar a IA por conta própria
+    @NotNull(message = "Tempo de espera da coalescência é obrigatório")
+    private Duration coalescingWaitTimeout = Duration.ofSeconds(45);
+}
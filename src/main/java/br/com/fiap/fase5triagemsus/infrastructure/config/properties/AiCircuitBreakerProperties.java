@@ -0,0 +1,51 @@
+package br.com.fiap.fase5triagemsus.infrastructure.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "triage.ai.circuit-breaker")
+public class AiCircuitBreakerProperties {
+
+
+    private Boolean enabled = true;
+
+    // Percentual de chamadas com 5xx, timeout ou erro de conexão que abre o circuito
+    @DecimalMin(value = "1", message = "Taxa de falhas deve ser pelo menos 1%")
+    @DecimalMax(value = "100", message = "Taxa de falhas deve ser no máximo 100%")
+    private Double failureRateThreshold = 50.0;
+
+
+    @DecimalMin(value = "1", message = "Taxa de chamadas lentas deve ser pelo menos 1%")
+    @DecimalMax(value = "100", message = "Taxa de chamadas lentas deve ser no máximo 100%")
+    private Double slowCallRateThreshold = 80.0;
+
+
+    @NotNull(message = "Duração de chamada lenta é obrigatória")
+    private Duration slowCallDuration = Duration.ofSeconds(15);
+
+    // Janela deslizante por número de chamadas; as taxas só valem após minimum-number-of-calls
+    @Min(value = 1, message = "Janela deve ter pelo menos 1 chamada")
+    private Integer slidingWindowSize = 20;
+
+
+    @Min(value = 1, message = "Mínimo de chamadas deve ser pelo menos 1")
+    private Integer minimumNumberOfCalls = 10;
+
+    // Tempo aberto antes de liberar as chamadas de teste do half-open
+    @NotNull(message = "Tempo em aberto é obrigatório")
+    private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+
+    @Min(value = 1, message = "Chamadas de teste devem ser pelo menos 1")
+    private Integer permittedCallsInHalfOpenState = 3;
+}
@@ -0,0 +1,43 @@
+package br.com.fiap.fase5triagemsus.infrastructure.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "triage.ai.concurrency")
+public class AiConcurrencyProperties {
+
+
+    @Min(value = 1, message = "Limite inicial deve ser pelo menos 1")
+    private Integer initialLimit = 10;
+
+
+    @Min(value = 1, message = "Limite mínimo deve ser pelo menos 1")
+    private Integer minLimit = 1;
+
+    // Não adianta passar de triage.queue.max-in-flight-analyses: acima disso não há análises para admitir
+    @Min(value = 1, message = "Limite máximo deve ser pelo menos 1")
+    private Integer maxLimit = 200;
+
+
+    @DecimalMin(value = "0.1", message = "Fator de redução deve ser pelo menos 0.1")
+    @DecimalMax(value = "0.99", message = "Fator de redução deve ser no máximo 0.99")
+    private Double backoffRatio = 0.9;
+
+    // Latência acima disso é tratada como sinal de saturação, mesmo sem 429
+    @NotNull(message = "Limite de latência é obrigatório")
+    private Duration latencyThreshold = Duration.ofSeconds(10);
+
+
+    @NotNull(message = "Tempo máximo de espera por vaga é obrigatório")
+    private Duration acquireTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,39 @@
+package br.com.fiap.fase5triagemsus.infrastructure.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "triage.ai.hedging")
+public class AiHedgingProperties {
+
+    // Só para triagens com suspeita de emergência (Triage.isUrgent ou sintoma grave)
+    private Boolean enabled = true;
+
+    // A segunda chamada sai quando a primeira passa deste percentil da latência observada
+    @DecimalMin(value = "0.5", message = "Percentil deve ser pelo menos 0.5")
+    @DecimalMax(value = "0.999", message = "Percentil deve ser no máximo 0.999")
+    private Double percentile = 0.95;
+
+
+    @Min(value = 1, message = "Amostras mínimas devem ser pelo menos 1")
+    private Integer minSamples = 20;
+
+
+    @NotNull(message = "Atraso mínimo é obrigatório")
+    private Duration minDelay = Duration.ofMillis(500);
+
+    // Fração máxima de chamadas elegíveis que podem gerar hedge; evita dobrar a carga quando o Gemini todo está lento
+    @DecimalMin(value = "0.0", message = "Orçamento de hedge não pode ser negativo")
+    @DecimalMax(value = "1.0", message = "Orçamento de hedge deve ser no máximo 1.0")
+    private Double budget = 0.1;
+}
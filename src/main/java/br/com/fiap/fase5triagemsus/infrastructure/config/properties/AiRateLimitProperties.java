@@ -0,0 +1,39 @@
+package br.com.fiap.fase5triagemsus.infrastructure.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "triage.ai.rate-limit")
+public class AiRateLimitProperties {
+
+
+    private Boolean enabled = true;
+
+    // Cotas do projeto no Gemini, somadas entre todos os nós
+    @Min(value = 1, message = "Cota de requisições por minuto deve ser pelo menos 1")
+    private Integer requestsPerMinute = 60;
+
+
+    @Min(value = 1, message = "Cota de tokens por minuto deve ser pelo menos 1")
+    private Integer tokensPerMinute = 1_000_000;
+
+    // Permissões reservadas por ida ao Redis; sobras voltam ao bucket em prefetch-ttl para não segurar cota ociosa
+    @Min(value = 1, message = "Pré-reserva deve ser de pelo menos 1 requisição")
+    private Integer prefetch = 5;
+
+
+    @NotNull(message = "Validade da pré-reserva é obrigatória")
+    private Duration prefetchTtl = Duration.ofSeconds(2);
+
+    // Acima disso a análise volta para a fila de retry em vez de esperar cota
+    @NotNull(message = "Espera máxima por cota é obrigatória")
+    private Duration maxWait = Duration.ofSeconds(30);
+}
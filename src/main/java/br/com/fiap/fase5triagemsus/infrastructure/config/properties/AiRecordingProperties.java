@@ -0,0 +1,32 @@
+package br.com.fiap.fase5triagemsus.infrastructure.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "triage.ai.recording")
+public class AiRecordingProperties {
+
+
+    // off: nada muda; record: grava prompt e resposta do Gemini; replay: o provedor "replay" devolve as gravações
+    @Pattern(regexp = "off|record|replay", message = "Modo de gravação deve ser 'off', 'record' ou 'replay'")
+    private String mode = "off";
+
+
+    // Diretório dos segmentos; cada execução em modo record abre um segmento novo
+    @NotBlank(message = "Diretório das gravações é obrigatório")
+    private String directory = "recordings";
+
+
+    // Multiplica a latência gravada no replay (0 devolve na hora)
+    @NotNull(message = "Escala de latência do replay é obrigatória")
+    @DecimalMin(value = "0.0", message = "Escala de latência do replay não pode ser negativa")
+    private Double latencyScale = 1.0;
+}
@@ -0,0 +1,38 @@
+package br.com.fiap.fase5triagemsus.infrastructure.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "triage.ai.router")
+public class AiRouterProperties {
+
+
+    // Peso de cada provedor na escolha, pelo nome; provedor sem peso ou com peso 0 não recebe chamadas
+    private Map<String, Double> weights = new LinkedHashMap<>(Map.of("gemini", 1.0));
+
+
+    // Peso da amostra mais recente nas médias móveis de latência e de erros
+    @DecimalMin(value = "0.01", message = "Alpha da EWMA deve ser maior que zero")
+    @DecimalMax(value = "1.0", message = "Alpha da EWMA deve ser no máximo 1")
+    private Double ewmaAlpha = 0.2;
+
+
+    // Latência assumida para um provedor ainda sem chamadas observadas
+    @NotNull(message = "Latência inicial dos provedores é obrigatória")
+    private Duration initialLatency = Duration.ofSeconds(1);
+
+
+    // Se o provedor escolhido falhar ou cair no fallback, tenta o próximo mais bem avaliado
+    private Boolean failover = true;
+}
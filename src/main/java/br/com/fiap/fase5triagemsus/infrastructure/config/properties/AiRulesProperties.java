@@ -0,0 +1,21 @@
+package br.com.fiap.fase5triagemsus.infrastructure.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotBlank;
+
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "triage.ai.rules")
+public class AiRulesProperties {
+
+    // Casos evidentes do Protocolo de Manchester são classificados por regras, sem chamar a IA
+    private Boolean enabled = true;
+
+    // Aceita classpath: ou file:, para ajustar o protocolo sem novo build
+    @NotBlank(message = "Local do arquivo de regras é obrigatório")
+    private String location = "classpath:triage/manchester-rules.json";
+}
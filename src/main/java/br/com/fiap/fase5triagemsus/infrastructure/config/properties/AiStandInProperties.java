@@ -0,0 +1,51 @@
+package br.com.fiap.fase5triagemsus.infrastructure.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "triage.ai.stand-in")
+public class AiStandInProperties {
+
+
+    // Endereço do servidor substituto usado pelo provedor "stand-in"
+    @NotBlank(message = "URL base do stand-in é obrigatória")
+    private String baseUrl = "http://localhost:8080/api/v1/stand-in";
+
+
+    @NotNull(message = "Timeout do stand-in é obrigatório")
+    private Duration timeout = Duration.ofSeconds(10);
+
+
+    // Sobe o servidor substituto neste nó (endpoint /stand-in/analyze)
+    private Boolean serverEnabled = false;
+
+
+    // Latência do servidor em distribuição log-normal, definida pela mediana e pelo p99
+    @NotNull(message = "Mediana de latência do stand-in é obrigatória")
+    private Duration latencyMedian = Duration.ofMillis(800);
+
+
+    @NotNull(message = "p99 de latência do stand-in é obrigatório")
+    private Duration latencyP99 = Duration.ofSeconds(3);
+
+
+    // Fração das respostas com 503 e com 429
+    @DecimalMin(value = "0.0", message = "Taxa de erros do stand-in deve estar entre 0 e 1")
+    @DecimalMax(value = "1.0", message = "Taxa de erros do stand-in deve estar entre 0 e 1")
+    private Double errorRate = 0.02;
+
+
+    @DecimalMin(value = "0.0", message = "Taxa de throttling do stand-in deve estar entre 0 e 1")
+    @DecimalMax(value = "1.0", message = "Taxa de throttling do stand-in deve estar entre 0 e 1")
+    private Double throttleRate = 0.0;
+}
@@ -20,6 +20,10 @@ public class BusinessProperties {
     private Integer maxSymptomsPerRequest = 10;
 
 
+    @Min(value = 1, message = "Deve permitir pelo menos 1 triagem por lote")
+    private Integer maxTriagesPerBatch = 500;
+
+
     @Positive(message = "TTL do cache deve ser positivo")
     private Long cacheTtl = 300L; // 5 minutos
 
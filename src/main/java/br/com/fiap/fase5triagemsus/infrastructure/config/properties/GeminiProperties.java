@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -35,4 +37,70 @@ public class GeminiProperties {
 
     @Positive(message = "Máximo de tokens deve ser positivo")
     private Integer maxTokens = 1000;
-}
\ No newline at end of file
+
+    // streamGenerateContent nas análises individuais: a prioridade é gravada assim que chega no stream,
+    // antes de recomendação e justificativa
+    private Boolean streaming = true;
+
+    // Saída estruturada: responseMimeType application/json com o schema de TriageResponseSchema
+    private Boolean structuredOutput = true;
+
+    // Registra o protocolo uma vez como cachedContent; o Gemini exige um mínimo de tokens por cache,
+    // então com o prompt atual a criação pode ser recusada e as chamadas seguem com systemInstruction
+    private Boolean contextCache = false;
+
+    @NotNull(message = "TTL do cache de contexto é obrigatório")
+    private Duration contextCacheTtl = Duration.ofHours(1);
+
+
+    @Valid
+    private ConnectionPool connectionPool = new ConnectionPool();
+
+    /**
+     * Pool de conexões dedicado ao Gemini. Com HTTP/2, cada conexão multiplexa até
+     * {@code max-concurrent-streams} chamadas, então poucas conexões atendem todo o limite de concorrência.
+     */
+    @Data
+    public static class ConnectionPool {
+
+        // HTTP/2 negociado via ALPN quando a URL base é https; sem suporte do servidor, cai para HTTP/1.1
+        private Boolean http2 = true;
+
+        @NotNull(message = "Timeout de conexão é obrigatório")
+        private Duration connectTimeout = Duration.ofSeconds(3);
+
+        @Positive(message = "Número máximo de conexões deve ser positivo")
+        private Integer maxConnections = 50;
+
+        // Conexões HTTP/2 que o pool não fecha por ociosidade, para uma rajada não pagar handshake TCP/TLS
+        @Min(value = 0, message = "Número mínimo de conexões não pode ser negativo")
+        private Integer minConnections = 2;
+
+        @Positive(message = "Número máximo de streams por conexão deve ser positivo")
+        private Integer maxConcurrentStreams = 100;
+
+        // Chamadas aguardando conexão livre; acima disso falham na hora em vez de esperar
+        @Positive(message = "Limite de chamadas aguardando conexão deve ser positivo")
+        private Integer pendingAcquireMaxCount = 1000;
+
+        @NotNull(message = "Timeout de espera por conexão é obrigatório")
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+
+        // Abaixo do timeout de ociosidade do lado do Google, para não reutilizar conexão já fechada
+        @NotNull(message = "Tempo máximo de ociosidade é obrigatório")
+        private Duration maxIdleTime = Duration.ofSeconds(55);
+
+        @NotNull(message = "Tempo máximo de vida da conexão é obrigatório")
+        private Duration maxLifeTime = Duration.ofMinutes(10);
+
+        @NotNull(message = "Intervalo de remoção de conexões ociosas é obrigatório")
+        private Duration evictInterval = Duration.ofSeconds(30);
+
+        // Sessões TLS guardadas para retomar o handshake em conexões novas
+        @Positive(message = "Tamanho do cache de sessões TLS deve ser positivo")
+        private Long tlsSessionCacheSize = 256L;
+
+        @NotNull(message = "Tempo de vida das sessões TLS é obrigatório")
+        private Duration tlsSessionTimeout = Duration.ofHours(1);
+    }
+}
@@ -4,9 +4,15 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Data
 @Validated
 @ConfigurationProperties(prefix = "triage.queue")
@@ -30,14 +36,79 @@ public class QueueProperties {
     @Min(value = 1, message = "Número de threads consumidoras deve ser pelo menos 1")
     private Integer consumerThreads = 3;
 
+    // Teto de análises simultâneas no nó (chamadas à IA em voo), independente do número de threads
+    @Min(value = 1, message = "Número máximo de análises simultâneas deve ser pelo menos 1")
+    private Integer maxInFlightAnalyses = 200;
+
+    // Triagens não urgentes agrupadas numa única chamada ao Gemini; 1 desativa o agrupamento
+    @Min(value = 1, message = "Tamanho do lote de análises deve ser pelo menos 1")
+    private Integer aiBatchSize = 1;
+
+    // Espera máxima da primeira triagem do lote pelas demais antes do envio
+    @Positive(message = "Espera máxima do lote de análises deve ser positiva")
+    private Long aiBatchLingerMs = 200L;
+
     @Positive(message = "Timeout de polling deve ser positivo")
     private Integer pollTimeoutSeconds = 5;
 
+    // blocking: BZMPOP/XREADGROUP BLOCK quando as lanes esvaziam; polling: sleep de processing-interval-seconds
+    @Pattern(regexp = "blocking|polling", message = "Modo do consumidor deve ser 'blocking' ou 'polling'")
+    private String consumerMode = "blocking";
+
+    // Backend list com prioridade: fatia da espera bloqueante nas lanes antes de conferir regular e retry
+    @Positive(message = "Fatia de espera bloqueante deve ser positiva")
+    private Long awaitSliceMs = 250L;
+
     @Positive(message = "Intervalo entre processamentos deve ser positivo")
     private Integer processingIntervalSeconds = 1;
 
+    @Positive(message = "Intervalo de promoção de mensagens agendadas deve ser positivo")
+    private Long delayedPollIntervalMs = 500L;
+
+    @Positive(message = "Lote de promoção de mensagens agendadas deve ser positivo")
+    private Integer delayedBatchSize = 100;
+
+    // Pesos do escalonamento weighted-fair entre as lanes; peso 0 desativa a lane
+    private Map<String, Integer> laneWeights = new LinkedHashMap<>(Map.of(
+            "emergency", 32,
+            "very_urgent", 16,
+            "urgent", 8,
+            "less_urgent", 4,
+            "non_urgent", 2,
+            "regular", 4,
+            "retry", 2
+    ));
+
     private Boolean enablePriorityQueue = true;
     private Boolean enableRetryQueue = true;
     private Boolean enableDeadLetterQueue = true;
     private Boolean enableMetrics = true;
+
+    @Pattern(regexp = "list|stream", message = "Backend da fila deve ser 'list' ou 'stream'")
+    private String backend = "list";
+
+    // Formato de escrita das mensagens; a leitura aceita os dois, então a troca pode ser feita nó a nó
+    @Pattern(regexp = "json|binary", message = "Codec da fila deve ser 'json' ou 'binary'")
+    private String codec = "json";
+
+    @Valid
+    private StreamSettings stream = new StreamSettings();
+
+    @Data
+    public static class StreamSettings {
+
+        @NotBlank(message = "Nome do consumer group é obrigatório")
+        private String consumerGroup = "triage-workers";
+
+        // Quando vazio, usa hostname + pid para identificar o consumidor deste nó
+        private String consumerName;
+
+        @Positive(message = "Tamanho do lote de auto-claim deve ser positivo")
+        private Integer claimBatchSize = 100;
+
+        // Limite de mensagens por stream de trabalho: acima dele novas triagens são recusadas (HTTP 503), nunca
+        // aparadas; na DLQ vale como MAXLEN aproximado
+        @Positive(message = "Tamanho máximo do stream deve ser positivo")
+        private Long maxLength = 100_000L;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package br.com.fiap.fase5triagemsus.infrastructure.services.background;
+
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.QueueProperties;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.QueueService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DelayedMessageScheduler {
+
+    private final QueueService queueService;
+    private final QueueProperties queueProperties;
+
+    @Scheduled(fixedDelayString = "${triage.queue.delayed-poll-interval-ms:500}")
+    public void promoteDueMessages() {
+        try {
+            long promoted = queueService.promoteDueMessages(queueProperties.getDelayedBatchSize());
+            if (promoted > 0) {
+                log.debug("Mensagens agendadas promovidas: {}", promoted);
+            }
+        } catch (Exception e) {
+            log.error("Erro ao promover mensagens agendadas: {}", e.getMessage(), e);
+        }
+    }
+}
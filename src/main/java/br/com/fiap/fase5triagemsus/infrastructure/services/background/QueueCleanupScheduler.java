@@ -17,7 +17,7 @@ public class QueueCleanupScheduler {
     private final QueueService queueService;
     private final QueueProperties queueProperties;
 
-    @Scheduled(fixedDelay = 1800000) // 30 minutos em milliseconds
+    @Scheduled(fixedDelayString = "#{${triage.queue.cleanup-interval-minutes:30} * 60000}")
     public void cleanupStuckProcessing() {
         try {
             Duration timeout = Duration.ofMinutes(queueProperties.getProcessingTimeoutMinutes());
@@ -1,18 +1,27 @@
 package br.com.fiap.fase5triagemsus.infrastructure.services.background;
 
+import br.com.fiap.fase5triagemsus.domain.entities.Triage;
 import br.com.fiap.fase5triagemsus.domain.valueobjects.QueueMessage;
 import br.com.fiap.fase5triagemsus.infrastructure.config.QueueConfig;
 import br.com.fiap.fase5triagemsus.infrastructure.config.properties.QueueProperties;
 import br.com.fiap.fase5triagemsus.infrastructure.services.queue.QueueService;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.WeightedLaneDispatcher;
 import br.com.fiap.fase5triagemsus.usecases.ProcessTriageUseCase;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 @Slf4j
 @Service
@@ -20,22 +29,58 @@ import java.util.concurrent.CompletableFuture;
 public class TriageQueueConsumer implements CommandLineRunner {
 
     private final QueueService queueService;
+    private final WeightedLaneDispatcher laneDispatcher;
     private final ProcessTriageUseCase processTriageUseCase;
     private final QueueProperties queueProperties;
 
+    @Qualifier("queueConsumerExecutor")
+    private final Executor queueConsumerExecutor;
+
+    @Qualifier("triageProcessingExecutor")
+    private final Executor triageProcessingExecutor;
+
+    private volatile boolean running = true;
+
+    // Uma permissão por análise em voo; os consumidores só retiram mensagens do Redis quando há permissão livre
+    private Semaphore inFlightPermits;
+
+    @PostConstruct
+    void init() {
+        int permits = queueProperties.getMaxInFlightAnalyses();
+        if (triageProcessingExecutor instanceof ThreadPoolTaskExecutor pool) {
+            // Cada análise em voo ocupa no máximo uma tarefa de banco por vez; pool + fila evita rejeições
+            permits = Math.min(permits, pool.getMaxPoolSize() + pool.getQueueCapacity());
+        }
+        inFlightPermits = new Semaphore(permits);
+        log.info("Limite de análises simultâneas: {}", permits);
+    }
+
     @Override
     public void run(String... args) {
+        boolean blocking = "blocking".equals(queueProperties.getConsumerMode());
         for (int i = 0; i < queueProperties.getConsumerThreads(); i++) {
-            startConsumer("consumer-" + i);
+            String consumerName = "consumer-" + i;
+            // Submetido explicitamente: @Async não se aplica a chamadas internas e o laço travaria a thread main
+            queueConsumerExecutor.execute(() -> startConsumer(consumerName, blocking));
         }
+        log.info("Consumidores iniciados: {} ({})", queueProperties.getConsumerThreads(),
+                queueProperties.getConsumerMode());
     }
 
-    @Async("queueConsumerExecutor")
-    public void startConsumer(String consumerName) {
-        while (!Thread.currentThread().isInterrupted()) {
+    @PreDestroy
+    void stop() {
+        running = false;
+    }
+
+    private void startConsumer(String consumerName, boolean blocking) {
+        while (running && !Thread.currentThread().isInterrupted()) {
             try {
-                processNextBatch(consumerName);
-                Thread.sleep(queueProperties.getProcessingIntervalSeconds() * 1000);
+                if (blocking) {
+                    consumeOrAwait(consumerName);
+                } else {
+                    processNextBatch(consumerName);
+                    Thread.sleep(queueProperties.getProcessingIntervalSeconds() * 1000);
+                }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 break;
@@ -50,41 +95,103 @@ public class TriageQueueConsumer implements CommandLineRunner {
         }
     }
 
-    private void processNextBatch(String consumerName) {
-        List<QueueMessage> priorityMessages = queueService.receiveMultipleFromQueue(
-                QueueConfig.TRIAGE_PRIORITY_QUEUE,
-                queueProperties.getBatchSize() / 2
-        );
+    /**
+     * Com backlog, consome pelo escalonamento weighted-fair sem pausa entre lotes; com as lanes vazias,
+     * bloqueia no Redis até chegar mensagem ou expirar poll-timeout-seconds.
+     */
+    private void consumeOrAwait(String consumerName) throws InterruptedException {
+        int permits = acquirePermits(queueProperties.getBatchSize());
+        List<QueueMessage> messages = List.of();
+        try {
+            messages = laneDispatcher.nextBatch(permits);
+            if (messages.isEmpty()) {
+                messages = queueService.awaitMessages(permits,
+                        Duration.ofSeconds(queueProperties.getPollTimeoutSeconds()));
+            }
+        } finally {
+            // O XREADGROUP pode devolver mais que o pedido; o excedente também ocupa permissão
+            releaseOrAcquireRemaining(permits, messages.size());
+        }
+        dispatchAll(messages);
+    }
 
-        List<QueueMessage> regularMessages = queueService.receiveMultipleFromQueue(
-                QueueConfig.TRIAGE_QUEUE,
-                queueProperties.getBatchSize() - priorityMessages.size()
-        );
+    private void processNextBatch(String consumerName) throws InterruptedException {
+        int permits = acquirePermits(queueProperties.getBatchSize());
+        List<QueueMessage> messages = List.of();
+        try {
+            messages = laneDispatcher.nextBatch(permits);
+        } finally {
+            releaseOrAcquireRemaining(permits, messages.size());
+        }
+        dispatchAll(messages);
+    }
 
-        List<QueueMessage> allMessages = List.of(priorityMessages, regularMessages)
-                .stream()
-                .flatMap(List::stream)
-                .toList();
+    /**
+     * Bloqueia até obter ao menos uma permissão e leva, sem bloquear, as demais disponíveis até {@code wanted}.
+     */
+    private int acquirePermits(int wanted) throws InterruptedException {
+        inFlightPermits.acquire();
+        int acquired = 1;
+        while (acquired < wanted && inFlightPermits.tryAcquire()) {
+            acquired++;
+        }
+        return acquired;
+    }
 
-        if (!allMessages.isEmpty()) {
-            List<CompletableFuture<Void>> futures = allMessages.stream()
-                    .map(this::processMessageAsync)
-                    .toList();
+    private void releaseOrAcquireRemaining(int acquired, int used) throws InterruptedException {
+        if (used < acquired) {
+            inFlightPermits.release(acquired - used);
+        } else if (used > acquired) {
+            inFlightPermits.acquire(used - acquired);
+        }
+    }
 
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    /**
+     * Cada mensagem vira um pipeline assíncrono; a permissão é devolvida quando ele termina, não quando
+     * a thread consumidora segue adiante.
+     */
+    private void dispatchAll(List<QueueMessage> messages) {
+        for (QueueMessage message : messages) {
+            try {
+                queueService.markAsProcessing(message);
+                processTriageUseCase.executeAsync(message, triageProcessingExecutor)
+                        .whenComplete((result, error) -> {
+                            try {
+                                handleResult(message, result, error);
+                            } finally {
+                                inFlightPermits.release();
+                            }
+                        });
+            } catch (TaskRejectedException e) {
+                // A mensagem já saiu do Redis: processa na própria thread consumidora em vez de perdê-la
+                try {
+                    handleResult(message, processTriageUseCase.execute(message), null);
+                } catch (Exception ex) {
+                    handleResult(message, null, ex);
+                } finally {
+                    inFlightPermits.release();
+                }
+            }
         }
     }
 
-    @Async("triageProcessingExecutor")
-    public CompletableFuture<Void> processMessageAsync(QueueMessage message) {
-        return CompletableFuture.runAsync(() -> processMessage(message));
+    // Se a IA chegou a antecipar a prioridade antes de falhar, o retry já sai com ela
+    private static QueueMessage rescore(QueueMessage message, Triage triage) {
+        if (triage == null || triage.getPriority() == null) {
+            return message;
+        }
+        return message.withPriority(triage.getPriority().getLevel());
     }
 
-    private void processMessage(QueueMessage message) {
+    private void handleResult(QueueMessage message, ProcessTriageUseCase.ProcessingResult result, Throwable error) {
         try {
-            queueService.markAsProcessing(message);
-
-            ProcessTriageUseCase.ProcessingResult result = processTriageUseCase.execute(message);
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                queueService.markAsFailed(message, "Erro crítico: " + cause.getMessage());
+                queueService.nackMessage(QueueConfig.TRIAGE_QUEUE, message);
+                return;
+            }
 
             switch (result.status()) {
                 case SUCCESS -> {
@@ -94,7 +201,7 @@ public class TriageQueueConsumer implements CommandLineRunner {
                 }
                 case FAILED -> {
                     queueService.markAsFailed(message, result.message());
-                    queueService.nackMessage(QueueConfig.TRIAGE_QUEUE, message);
+                    queueService.nackMessage(QueueConfig.TRIAGE_QUEUE, rescore(message, result.triage()));
                     log.warn("Falha no processamento: {} - {}", message.getTriageId(), result.message());
                 }
                 case SKIPPED -> {
@@ -104,8 +211,7 @@ public class TriageQueueConsumer implements CommandLineRunner {
             }
 
         } catch (Exception e) {
-            queueService.markAsFailed(message, "Erro crítico: " + e.getMessage());
-            queueService.nackMessage(QueueConfig.TRIAGE_QUEUE, message);
+            log.error("Erro ao finalizar mensagem {}: {}", message.getTriageId(), e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+}
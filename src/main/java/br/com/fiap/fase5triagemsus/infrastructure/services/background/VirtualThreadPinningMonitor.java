@@ -0,0 +1,85 @@
+package br.com.fiap.fase5triagemsus.infrastructure.services.background;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Acompanha via JFR os eventos jdk.VirtualThreadPinned (virtual thread presa à carrier por synchronized
+ * ou código nativo). A origem é classificada em jdbc/jpa/other pela pilha, já que driver JDBC, pool e
+ * Hibernate são os suspeitos habituais de pinning nas análises.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final Duration PINNED_THRESHOLD = Duration.ofMillis(20);
+    private static final int LOGGED_FRAMES = 6;
+
+    private final MeterRegistry meterRegistry;
+
+    private RecordingStream recordingStream;
+
+    @PostConstruct
+    void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(PINNED_THRESHOLD).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("Monitor de pinning de virtual threads ativo (limite {} ms)", PINNED_THRESHOLD.toMillis());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String source = classify(frames);
+
+        Counter.builder("triage.virtual.threads.pinned")
+                .description("Virtual threads presas à carrier acima do limite")
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment();
+
+        log.warn("Virtual thread presa por {} ms ({}): {}", event.getDuration().toMillis(), source,
+                frames.stream()
+                        .limit(LOGGED_FRAMES)
+                        .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                        .collect(Collectors.joining(" <- ")));
+    }
+
+    private String classify(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("org.postgresql") || type.startsWith("com.zaxxer.hikari") || type.startsWith("java.sql")) {
+                return "jdbc";
+            }
+            if (type.startsWith("org.hibernate") || type.startsWith("jakarta.persistence")
+                    || type.startsWith("org.springframework.orm")) {
+                return "jpa";
+            }
+        }
+        return "other";
+    }
+}
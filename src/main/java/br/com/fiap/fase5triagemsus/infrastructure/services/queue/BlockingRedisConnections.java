@@ -0,0 +1,67 @@
+package br.com.fiap.fase5triagemsus.infrastructure.services.queue;
+
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.QueueProperties;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.StringCodec;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Conexões Lettuce dedicadas, uma por thread consumidora, para comandos bloqueantes
+ * (BZMPOP, BLMPOP, XREADGROUP BLOCK). A conexão compartilhada do {@link LettuceConnectionFactory}
+ * não pode ser usada: um comando bloqueado nela travaria todos os outros acessos ao Redis.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BlockingRedisConnections {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final QueueProperties queueProperties;
+
+    private final ThreadLocal<StatefulRedisConnection<String, String>> current = new ThreadLocal<>();
+    private final Set<StatefulRedisConnection<String, String>> opened = ConcurrentHashMap.newKeySet();
+
+    public <T> T execute(Function<RedisCommands<String, String>, T> action) {
+        return action.apply(connection().sync());
+    }
+
+    @PreDestroy
+    void close() {
+        opened.forEach(StatefulRedisConnection::close);
+        opened.clear();
+    }
+
+    private StatefulRedisConnection<String, String> connection() {
+        StatefulRedisConnection<String, String> connection = current.get();
+        if (connection != null && connection.isOpen()) {
+            return connection;
+        }
+
+        if (!(connectionFactory instanceof LettuceConnectionFactory lettuce)
+                || !(lettuce.getRequiredNativeClient() instanceof RedisClient client)) {
+            throw new IllegalStateException("Consumo bloqueante requer Redis standalone com Lettuce");
+        }
+
+        connection = client.connect(StringCodec.UTF8);
+        // O comando bloqueia por até poll-timeout; o timeout da conexão precisa cobrir essa espera
+        connection.setTimeout(Duration.ofMillis(lettuce.getTimeout())
+                .plusSeconds(queueProperties.getPollTimeoutSeconds()));
+
+        opened.add(connection);
+        current.set(connection);
+        log.debug("Conexão bloqueante aberta para {}", Thread.currentThread().getName());
+        return connection;
+    }
+}
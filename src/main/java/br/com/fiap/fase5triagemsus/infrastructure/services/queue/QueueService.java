@@ -1,5 +1,6 @@
 package br.com.fiap.fase5triagemsus.infrastructure.services.queue;
 
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
 import br.com.fiap.fase5triagemsus.domain.valueobjects.QueueMessage;
 
 import java.time.Duration;
@@ -14,6 +15,12 @@ public interface QueueService {
 
     void sendToPriorityQueue(QueueMessage message);
 
+    /**
+     * Enfileira todas as mensagens em um único pipeline: nas lanes de prioridade quando a fila
+     * prioritária está ativa, senão na fila regular.
+     */
+    void sendBatch(List<QueueMessage> messages);
+
     void sendToRetryQueue(QueueMessage message, Duration delay);
 
     void sendToDeadLetterQueue(QueueMessage message, String reason);
@@ -24,6 +31,14 @@ public interface QueueService {
 
     List<QueueMessage> receiveMultipleFromQueue(String queueName, int count);
 
+    List<QueueMessage> receiveFromPriorityLane(PriorityLevel priority, int count);
+
+    /**
+     * Bloqueia por até {@code timeout} aguardando mensagens nas lanes consumidas, retornando
+     * assim que alguma chegar (lanes mais urgentes primeiro). Lista vazia se o tempo esgotar.
+     */
+    List<QueueMessage> awaitMessages(int maxCount, Duration timeout);
+
     void ackMessage(String queueName, QueueMessage message);
 
     void nackMessage(String queueName, QueueMessage message);
@@ -42,6 +57,8 @@ public interface QueueService {
 
     void cleanupProcessing(Duration timeout);
 
+    long promoteDueMessages(int maxBatch);
+
     record QueueStats(
             long pendingCount,
             long processingCount,
@@ -0,0 +1,228 @@
+package br.com.fiap.fase5triagemsus.infrastructure.services.queue;
+
+import br.com.fiap.fase5triagemsus.infrastructure.config.QueueConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estatísticas de fila com memória limitada, compartilhadas pelos dois backends:
+ * <ul>
+ *     <li>HyperLogLog por desfecho (concluídas/falhas distintas, ~12 KB cada, independente do volume)</li>
+ *     <li>contadores por minuto e por hora com TTL, para vazão recente</li>
+ *     <li>listas com os motivos mais recentes de falha e DLQ, truncadas em {@value #RECENT_REASONS_LIMIT}</li>
+ * </ul>
+ * O snapshot de {@link QueueService.QueueStats} é lido em um único script, com custo que não depende
+ * de quantas triagens já passaram pelo sistema.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueueStatsStore {
+
+    public static final String COMPLETED = QueueConfig.COMPLETED_SET;
+    public static final String FAILED = QueueConfig.FAILED_SET;
+
+    static final String DEAD_LETTER_REASONS = QueueConfig.TRIAGE_DLQ + ":reasons:recent";
+
+    private static final int RECENT_REASONS_LIMIT = 1000;
+    private static final Duration MINUTE_BUCKET_TTL = Duration.ofHours(2);
+    private static final Duration HOUR_BUCKET_TTL = Duration.ofDays(2);
+
+    private static final DefaultRedisScript<Long> RECORD_OUTCOME_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('PFADD', KEYS[1], ARGV[1])
+            redis.call('INCR', KEYS[2])
+            redis.call('EXPIRE', KEYS[2], ARGV[2])
+            redis.call('INCR', KEYS[3])
+            redis.call('EXPIRE', KEYS[3], ARGV[3])
+            if KEYS[4] then
+                redis.call('LPUSH', KEYS[4], ARGV[4])
+                redis.call('LTRIM', KEYS[4], 0, ARGV[5] - 1)
+            end
+            return 1
+            """, Long.class);
+
+    private static final DefaultRedisScript<Long> RECORD_REASON_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('LPUSH', KEYS[1], ARGV[1])
+            redis.call('LTRIM', KEYS[1], 0, ARGV[2] - 1)
+            return 1
+            """, Long.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> SNAPSHOT_SCRIPT = new DefaultRedisScript<>("""
+            local totals = {0, 0, 0, 0, 0, 0}
+            local group = ARGV[#KEYS * 2 + 1]
+            for i = 1, #KEYS do
+                local op = ARGV[i * 2 - 1]
+                local slot = tonumber(ARGV[i * 2])
+                local value = 0
+                if op == 'llen' then
+                    value = redis.call('LLEN', KEYS[i])
+                elseif op == 'zcard' then
+                    value = redis.call('ZCARD', KEYS[i])
+                elseif op == 'xlen' then
+                    value = redis.call('XLEN', KEYS[i])
+                elseif op == 'pfcount' then
+                    value = redis.call('PFCOUNT', KEYS[i])
+                elseif op == 'xpending' then
+                    local ok, summary = pcall(redis.call, 'XPENDING', KEYS[i], group)
+                    if ok then
+                        value = summary[1]
+                    end
+                elseif op == 'xbacklog' then
+                    value = redis.call('XLEN', KEYS[i])
+                    local ok, summary = pcall(redis.call, 'XPENDING', KEYS[i], group)
+                    if ok then
+                        value = value - summary[1]
+                    end
+                end
+                totals[slot] = totals[slot] + value
+            end
+            return totals
+            """, List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public void recordCompleted(String triageId) {
+        recordOutcome(COMPLETED, triageId, null);
+    }
+
+    public void recordFailed(String triageId, String reason) {
+        recordOutcome(FAILED, triageId, reasonEntry(triageId, reason));
+    }
+
+    public void recordDeadLetter(String triageId, String reason) {
+        stringRedisTemplate.execute(RECORD_REASON_SCRIPT, List.of(DEAD_LETTER_REASONS),
+                reasonEntry(triageId, reason), String.valueOf(RECENT_REASONS_LIMIT));
+    }
+
+    /**
+     * Vazão média de {@code outcome} ({@link #COMPLETED} ou {@link #FAILED}) nos últimos {@code minutes} minutos.
+     */
+    public double ratePerMinute(String outcome, int minutes) {
+        long currentMinute = TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+        List<String> keys = new ArrayList<>(minutes);
+        for (int i = 0; i < minutes; i++) {
+            keys.add(minuteBucket(outcome, currentMinute - i));
+        }
+        try {
+            List<String> counts = stringRedisTemplate.opsForValue().multiGet(keys);
+            if (counts == null) {
+                return 0.0;
+            }
+            long total = counts.stream()
+                    .filter(Objects::nonNull)
+                    .mapToLong(Long::parseLong)
+                    .sum();
+            return (double) total / minutes;
+        } catch (Exception e) {
+            log.error("Erro ao obter vazão de {}: {}", outcome, e.getMessage(), e);
+            return 0.0;
+        }
+    }
+
+    public QueueService.QueueStats snapshot(List<Source> sources, String consumerGroup) {
+        List<String> keys = new ArrayList<>(sources.size() + 2);
+        List<String> args = new ArrayList<>(sources.size() * 2 + 5);
+        for (Source source : sources) {
+            keys.add(source.key());
+            args.add(source.operation());
+            args.add(String.valueOf(source.stat().slot));
+        }
+        keys.add(COMPLETED + ":hll");
+        args.add("pfcount");
+        args.add(String.valueOf(Stat.COMPLETED.slot));
+        keys.add(FAILED + ":hll");
+        args.add("pfcount");
+        args.add(String.valueOf(Stat.FAILED.slot));
+        args.add(consumerGroup != null ? consumerGroup : "");
+
+        List<?> totals = stringRedisTemplate.execute(SNAPSHOT_SCRIPT, keys, args.toArray());
+        if (totals == null || totals.size() < Stat.values().length) {
+            return new QueueService.QueueStats(0, 0, 0, 0, 0, 0);
+        }
+        return new QueueService.QueueStats(
+                value(totals, Stat.PENDING),
+                value(totals, Stat.PROCESSING),
+                value(totals, Stat.COMPLETED),
+                value(totals, Stat.FAILED),
+                value(totals, Stat.RETRY),
+                value(totals, Stat.DEAD_LETTER));
+    }
+
+    private void recordOutcome(String outcome, String triageId, String reasonEntry) {
+        long now = System.currentTimeMillis();
+        List<String> keys = new ArrayList<>(List.of(
+                outcome + ":hll",
+                minuteBucket(outcome, TimeUnit.MILLISECONDS.toMinutes(now)),
+                outcome + ":h:" + TimeUnit.MILLISECONDS.toHours(now)));
+        List<String> args = new ArrayList<>(List.of(
+                triageId,
+                String.valueOf(MINUTE_BUCKET_TTL.toSeconds()),
+                String.valueOf(HOUR_BUCKET_TTL.toSeconds())));
+        if (reasonEntry != null) {
+            keys.add(outcome + ":recent");
+            args.add(reasonEntry);
+            args.add(String.valueOf(RECENT_REASONS_LIMIT));
+        }
+        stringRedisTemplate.execute(RECORD_OUTCOME_SCRIPT, keys, args.toArray());
+    }
+
+    private static String minuteBucket(String outcome, long epochMinute) {
+        return outcome + ":m:" + epochMinute;
+    }
+
+    private static String reasonEntry(String triageId, String reason) {
+        return String.format("%s:%s:%s", triageId, LocalDateTime.now(), reason);
+    }
+
+    private static long value(List<?> totals, Stat stat) {
+        return ((Number) totals.get(stat.slot - 1)).longValue();
+    }
+
+    public enum Stat {
+        PENDING(1), PROCESSING(2), COMPLETED(3), FAILED(4), RETRY(5), DEAD_LETTER(6);
+
+        private final int slot;
+
+        Stat(int slot) {
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Estrutura lida no snapshot: {@code operation} é llen, zcard, xlen, xpending (no consumer group) ou
+     * xbacklog (entradas do stream ainda não entregues ao grupo: XLEN menos a PEL).
+     */
+    public record Source(String key, String operation, Stat stat) {
+
+        public static Source llen(String key, Stat stat) {
+            return new Source(key, "llen", stat);
+        }
+
+        public static Source zcard(String key, Stat stat) {
+            return new Source(key, "zcard", stat);
+        }
+
+        public static Source xlen(String key, Stat stat) {
+            return new Source(key, "xlen", stat);
+        }
+
+        public static Source xpending(String key, Stat stat) {
+            return new Source(key, "xpending", stat);
+        }
+
+        public static Source xbacklog(String key, Stat stat) {
+            return new Source(key, "xbacklog", stat);
+        }
+    }
+}
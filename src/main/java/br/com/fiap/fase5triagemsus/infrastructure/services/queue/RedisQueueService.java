@@ -1,33 +1,132 @@
 package br.com.fiap.fase5triagemsus.infrastructure.services.queue;
 
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
 import br.com.fiap.fase5triagemsus.domain.valueobjects.QueueMessage;
 import br.com.fiap.fase5triagemsus.infrastructure.config.QueueConfig;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.QueueProperties;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.QueueStatsStore.Source;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.QueueStatsStore.Stat;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.codec.QueueMessageCodec;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.LMPopArgs;
+import io.lettuce.core.ScoredValue;
+import io.lettuce.core.ZPopArgs;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.time.LocalDateTime;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "triage.queue", name = "backend", havingValue = "list", matchIfMissing = true)
 public class RedisQueueService implements QueueService {
 
+    private static final String DELAYED_MEMBER_SEPARATOR = "|";
+
+    private static final String[] PRIORITY_LANES = Arrays.stream(PriorityLevel.values())
+            .map(QueueConfig::priorityLane)
+            .toArray(String[]::new);
+
+    private static final String[] LIST_QUEUES = {QueueConfig.TRIAGE_QUEUE, QueueConfig.TRIAGE_RETRY_QUEUE};
+
+    private static final List<Source> STATS_SOURCES = Stream.of(
+            Stream.of(Source.llen(QueueConfig.TRIAGE_QUEUE, Stat.PENDING)),
+            Arrays.stream(PRIORITY_LANES).map(lane -> Source.zcard(lane, Stat.PENDING)),
+            Stream.of(
+                    Source.zcard(QueueConfig.PROCESSING_EXPIRY, Stat.PROCESSING),
+                    Source.llen(QueueConfig.TRIAGE_RETRY_QUEUE, Stat.RETRY),
+                    Source.zcard(QueueConfig.DELAYED_SET, Stat.RETRY),
+                    Source.llen(QueueConfig.TRIAGE_DLQ, Stat.DEAD_LETTER))
+    ).flatMap(Function.identity()).toList();
+
+    // KEYS[1] é o ZSET de agendados e as demais são as filas de destino possíveis; o script só escreve em chaves
+    // declaradas, e membro com destino fora de KEYS fica no ZSET. As chaves não têm hash tag em comum, então o
+    // script exige Redis standalone (como BlockingRedisConnections), não Cluster
+    private static final List<String> PROMOTE_KEYS = Stream.concat(
+            Stream.of(QueueConfig.DELAYED_SET),
+            Arrays.stream(LIST_QUEUES)
+    ).toList();
+
+    private static final DefaultRedisScript<Long> PROMOTE_DUE_SCRIPT = new DefaultRedisScript<>("""
+            local delayed = KEYS[1]
+            local targets = {}
+            for i = 2, #KEYS do
+                targets[KEYS[i]] = true
+            end
+            local due = redis.call('ZRANGEBYSCORE', delayed, '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+
+            local promoted = 0
+            for i = 1, #due do
+                local member = due[i]
+                local sep = string.find(member, '|', 1, true)
+                local target = sep and string.sub(member, 1, sep - 1)
+                if not sep then
+                    redis.call('ZREM', delayed, member)
+                elseif targets[target] then
+                    redis.call('LPUSH', target, string.sub(member, sep + 1))
+                    redis.call('ZREM', delayed, member)
+                    promoted = promoted + 1
+                end
+            end
+
+            return promoted
+            """, Long.class);
+
+    private static final long LEASE_REAP_BATCH_SIZE = 1000;
+
+    private static final DefaultRedisScript<Long> ACQUIRE_LEASE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('ZADD', KEYS[2], ARGV[3], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private static final DefaultRedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('HDEL', KEYS[1], ARGV[1])
+            return redis.call('ZREM', KEYS[2], ARGV[1])
+            """, Long.class);
+
+    private static final DefaultRedisScript<Long> REAP_LEASES_SCRIPT = new DefaultRedisScript<>("""
+            local expired = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            if #expired > 0 then
+                redis.call('HDEL', KEYS[1], unpack(expired))
+                redis.call('ZREM', KEYS[2], unpack(expired))
+            end
+            return #expired
+            """, Long.class);
+
     private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
     private final ObjectMapper objectMapper;
+    private final QueueMessageCodec messageCodec;
+    private final QueueProperties queueProperties;
+    private final BlockingRedisConnections blockingConnections;
+    private final QueueStatsStore queueStatsStore;
 
     @Override
     public void sendToQueue(String queueName, QueueMessage message) {
         try {
-            String jsonMessage = objectMapper.writeValueAsString(message);
-            redisTemplate.opsForList().leftPush(queueName, jsonMessage);
+            String payload = messageCodec.encode(message);
+            redisTemplate.opsForList().leftPush(queueName, payload);
         } catch (Exception e) {
             throw new QueueException("Erro ao enviar mensagem para fila", e);
         }
@@ -35,25 +134,17 @@ public class RedisQueueService implements QueueService {
 
     @Override
     public void sendToQueue(String queueName, QueueMessage message, Duration delay) {
+        if (delay == null || delay.isZero() || delay.isNegative()) {
+            sendToQueue(queueName, message);
+            return;
+        }
+        if (!Arrays.asList(LIST_QUEUES).contains(queueName)) {
+            throw new QueueException("Agendamento não suportado para a fila " + queueName, null);
+        }
         try {
-            String delayedKey = queueName + ":delayed:" + System.currentTimeMillis();
-            String jsonMessage = objectMapper.writeValueAsString(message);
-            redisTemplate.opsForValue().set(delayedKey, jsonMessage, delay);
-
-            String script = """
-                local delayedKey = KEYS[1]
-                local targetQueue = KEYS[2]
-                local message = redis.call('GET', delayedKey)
-                if message then
-                    redis.call('DEL', delayedKey)
-                    redis.call('LPUSH', targetQueue, message)
-                    return 1
-                end
-                return 0
-                """;
-
-            redisTemplate.execute(new DefaultRedisScript<>(script, Long.class),
-                    List.of(delayedKey, queueName));
+            String member = queueName + DELAYED_MEMBER_SEPARATOR + toListPayload(message);
+            long dueAt = System.currentTimeMillis() + delay.toMillis();
+            stringRedisTemplate.opsForZSet().add(QueueConfig.DELAYED_SET, member, dueAt);
         } catch (Exception e) {
             throw new QueueException("Erro ao agendar mensagem", e);
         }
@@ -63,13 +154,48 @@ public class RedisQueueService implements QueueService {
     public void sendToPriorityQueue(QueueMessage message) {
         double score = calculatePriorityScore(message);
         try {
-            String jsonMessage = objectMapper.writeValueAsString(message);
-            redisTemplate.opsForZSet().add(QueueConfig.TRIAGE_PRIORITY_QUEUE, jsonMessage, score);
+            String payload = messageCodec.encode(message);
+            String lane = QueueConfig.priorityLane(message.getPriorityLevel());
+            redisTemplate.opsForZSet().add(lane, payload, score);
         } catch (Exception e) {
             throw new QueueException("Erro ao enviar para fila prioritária", e);
         }
     }
 
+    @Override
+    public void sendBatch(List<QueueMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        try {
+            List<String> payloads = new ArrayList<>(messages.size());
+            for (QueueMessage message : messages) {
+                payloads.add(messageCodec.encode(message));
+            }
+            boolean priority = queueProperties.getEnablePriorityQueue();
+
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> pipeline = (RedisOperations<String, Object>) operations;
+                    for (int i = 0; i < messages.size(); i++) {
+                        QueueMessage message = messages.get(i);
+                        if (priority) {
+                            pipeline.opsForZSet().add(QueueConfig.priorityLane(message.getPriorityLevel()),
+                                    payloads.get(i), calculatePriorityScore(message));
+                        } else {
+                            pipeline.opsForList().leftPush(QueueConfig.TRIAGE_QUEUE, payloads.get(i));
+                        }
+                    }
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            throw new QueueException("Erro ao enviar lote para fila", e);
+        }
+    }
+
     @Override
     public void sendToRetryQueue(QueueMessage message, Duration delay) {
         QueueMessage retryMessage = message.withIncrementedRetry();
@@ -79,11 +205,9 @@ public class RedisQueueService implements QueueService {
     @Override
     public void sendToDeadLetterQueue(QueueMessage message, String reason) {
         try {
-            String dlqEntry = String.format("%s:%s:%s",
-                    message.getTriageId(), LocalDateTime.now(), reason);
-            String jsonMessage = objectMapper.writeValueAsString(message);
-            redisTemplate.opsForList().leftPush(QueueConfig.TRIAGE_DLQ, jsonMessage);
-            redisTemplate.opsForSet().add(QueueConfig.TRIAGE_DLQ + ":reasons", dlqEntry);
+            String payload = messageCodec.encode(message);
+            redisTemplate.opsForList().leftPush(QueueConfig.TRIAGE_DLQ, payload);
+            queueStatsStore.recordDeadLetter(message.getTriageId(), reason);
         } catch (Exception e) {
             throw new QueueException("Erro ao enviar para DLQ", e);
         }
@@ -120,6 +244,9 @@ public class RedisQueueService implements QueueService {
 
     @Override
     public List<QueueMessage> receiveMultipleFromQueue(String queueName, int count) {
+        if (count <= 0) {
+            return List.of();
+        }
         try {
             List<Object> rawMessages = redisTemplate.opsForList().rightPop(queueName, count);
             if (rawMessages != null && !rawMessages.isEmpty()) {
@@ -134,15 +261,104 @@ public class RedisQueueService implements QueueService {
         }
     }
 
+    @Override
+    public List<QueueMessage> receiveFromPriorityLane(PriorityLevel priority, int count) {
+        if (count <= 0) {
+            return List.of();
+        }
+        String lane = QueueConfig.priorityLane(priority);
+        try {
+            Set<ZSetOperations.TypedTuple<Object>> popped = redisTemplate.opsForZSet().popMin(lane, count);
+            if (popped == null || popped.isEmpty()) {
+                return List.of();
+            }
+            return popped.stream()
+                    .map(ZSetOperations.TypedTuple::getValue)
+                    .map(this::deserializeMessage)
+                    .toList();
+        } catch (Exception e) {
+            log.error("Erro ao ler lane {}: {}", lane, e.getMessage(), e);
+            return List.of();
+        }
+    }
+
+    /**
+     * Com fila prioritária ativa bloqueia em BZMPOP sobre as lanes (EMERGENCY primeiro); senão,
+     * BLMPOP sobre a fila regular e a de retry. Cada consumidor usa sua própria conexão bloqueante.
+     */
+    @Override
+    public List<QueueMessage> awaitMessages(int maxCount, Duration timeout) {
+        if (maxCount <= 0) {
+            return List.of();
+        }
+        double timeoutSeconds = timeout.toMillis() / 1000.0;
+        try {
+            List<String> rawMessages = queueProperties.getEnablePriorityQueue()
+                    ? awaitAllLanes(maxCount, timeout)
+                    : awaitListQueues(maxCount, timeoutSeconds);
+            return rawMessages.stream()
+                    .map(this::fromListPayload)
+                    .map(this::deserializeMessage)
+                    .toList();
+        } catch (Exception e) {
+            log.error("Erro ao aguardar mensagens: {}", e.getMessage(), e);
+            return List.of();
+        }
+    }
+
+    /**
+     * Não existe bloqueio que cubra ZSETs e listas ao mesmo tempo: a espera é fatiada em BZMPOP de até
+     * await-slice-ms nas lanes de prioridade, seguido de um LMPOP sem bloqueio em regular e retry. Uma mensagem
+     * nessas filas espera no máximo uma fatia, não o poll-timeout inteiro.
+     */
+    private List<String> awaitAllLanes(int maxCount, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        do {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            // Timeout 0 no BZMPOP bloquearia para sempre
+            long sliceMillis = Math.max(1, Math.min(queueProperties.getAwaitSliceMs(), remainingMillis));
+            List<String> prioritized = awaitPriorityLanes(maxCount, sliceMillis / 1000.0);
+            if (!prioritized.isEmpty()) {
+                return prioritized;
+            }
+            KeyValue<String, List<String>> listed = blockingConnections.execute(redis ->
+                    redis.lmpop(LMPopArgs.Builder.right().count(maxCount), LIST_QUEUES));
+            if (listed != null && listed.hasValue()) {
+                return listed.getValue();
+            }
+        } while (System.nanoTime() < deadline);
+        return List.of();
+    }
+
+    private List<String> awaitPriorityLanes(int maxCount, double timeoutSeconds) {
+        KeyValue<String, List<ScoredValue<String>>> popped = blockingConnections.execute(redis ->
+                redis.bzmpop(timeoutSeconds, maxCount, ZPopArgs.Builder.min(), PRIORITY_LANES));
+        if (popped == null || !popped.hasValue()) {
+            return List.of();
+        }
+        return popped.getValue().stream()
+                .map(ScoredValue::getValue)
+                .toList();
+    }
+
+    private List<String> awaitListQueues(int maxCount, double timeoutSeconds) {
+        KeyValue<String, List<String>> popped = blockingConnections.execute(redis ->
+                redis.blmpop(timeoutSeconds, LMPopArgs.Builder.right().count(maxCount), LIST_QUEUES));
+        if (popped == null || !popped.hasValue()) {
+            return List.of();
+        }
+        return popped.getValue();
+    }
+
     private QueueMessage deserializeMessage(Object rawMessage) {
         try {
-            if (rawMessage instanceof String jsonString) {
-                return objectMapper.readValue(jsonString, QueueMessage.class);
+            if (rawMessage instanceof String payload) {
+                return messageCodec.decode(payload);
             } else if (rawMessage instanceof QueueMessage queueMessage) {
                 return queueMessage;
             } else {
-                String jsonString = objectMapper.writeValueAsString(rawMessage);
-                return objectMapper.readValue(jsonString, QueueMessage.class);
+                // Mensagens antigas gravadas como objeto: o serializer do template devolve um Map
+                return objectMapper.convertValue(rawMessage, QueueMessage.class);
             }
         } catch (Exception e) {
             throw new RuntimeException("Erro na deserialização", e);
@@ -175,11 +391,17 @@ public class RedisQueueService implements QueueService {
         }
     }
 
+    /**
+     * Registra (ou renova) o lease da mensagem: hash triageId -> início e ZSET triageId -> expiração.
+     */
     @Override
     public void markAsProcessing(QueueMessage message) {
         try {
-            String processingEntry = String.format("%s:%d", message.getTriageId(), System.currentTimeMillis());
-            redisTemplate.opsForSet().add(QueueConfig.PROCESSING_SET, processingEntry);
+            long now = System.currentTimeMillis();
+            long expiresAt = now + Duration.ofMinutes(queueProperties.getProcessingTimeoutMinutes()).toMillis();
+            stringRedisTemplate.execute(ACQUIRE_LEASE_SCRIPT,
+                    List.of(QueueConfig.PROCESSING_LEASES, QueueConfig.PROCESSING_EXPIRY),
+                    message.getTriageId(), String.valueOf(now), String.valueOf(expiresAt));
             log.debug("Mensagem marcada como processando: {}", message.getTriageId());
         } catch (Exception e) {
             log.error("Erro ao marcar como processando: {}", e.getMessage(), e);
@@ -190,7 +412,7 @@ public class RedisQueueService implements QueueService {
     public void markAsCompleted(QueueMessage message) {
         try {
             removeFromProcessing(message);
-            redisTemplate.opsForSet().add(QueueConfig.COMPLETED_SET, message.getTriageId());
+            queueStatsStore.recordCompleted(message.getTriageId());
             log.debug("Mensagem marcada como concluída: {}", message.getTriageId());
         } catch (Exception e) {
             log.error("Erro ao marcar como concluída: {}", e.getMessage(), e);
@@ -201,9 +423,7 @@ public class RedisQueueService implements QueueService {
     public void markAsFailed(QueueMessage message, String reason) {
         try {
             removeFromProcessing(message);
-            String failedEntry = String.format("%s:%s:%s",
-                    message.getTriageId(), LocalDateTime.now(), reason);
-            redisTemplate.opsForSet().add(QueueConfig.FAILED_SET, failedEntry);
+            queueStatsStore.recordFailed(message.getTriageId(), reason);
             log.debug("Mensagem marcada como falhada: {} - {}", message.getTriageId(), reason);
         } catch (Exception e) {
             log.error("Erro ao marcar como falhada: {}", e.getMessage(), e);
@@ -224,7 +444,7 @@ public class RedisQueueService implements QueueService {
     @Override
     public long getProcessingCount() {
         try {
-            Long count = redisTemplate.opsForSet().size(QueueConfig.PROCESSING_SET);
+            Long count = stringRedisTemplate.opsForZSet().zCard(QueueConfig.PROCESSING_EXPIRY);
             return count != null ? count : 0;
         } catch (Exception e) {
             log.error("Erro ao obter contagem de processamento: {}", e.getMessage(), e);
@@ -235,14 +455,7 @@ public class RedisQueueService implements QueueService {
     @Override
     public QueueStats getQueueStats() {
         try {
-            long pending = getQueueSize(QueueConfig.TRIAGE_QUEUE);
-            long processing = getProcessingCount();
-            long completed = redisTemplate.opsForSet().size(QueueConfig.COMPLETED_SET);
-            long failed = redisTemplate.opsForSet().size(QueueConfig.FAILED_SET);
-            long retry = getQueueSize(QueueConfig.TRIAGE_RETRY_QUEUE);
-            long deadLetter = getQueueSize(QueueConfig.TRIAGE_DLQ);
-
-            return new QueueStats(pending, processing, completed, failed, retry, deadLetter);
+            return queueStatsStore.snapshot(STATS_SOURCES, null);
         } catch (Exception e) {
             log.error("Erro ao obter estatísticas: {}", e.getMessage(), e);
             return new QueueStats(0, 0, 0, 0, 0, 0);
@@ -252,51 +465,55 @@ public class RedisQueueService implements QueueService {
     @Override
     public void cleanupProcessing(Duration timeout) {
         try {
-            long cutoffTime = System.currentTimeMillis() - timeout.toMillis();
-
-            String script = """
-                local processingSet = KEYS[1]
-                local cutoffTime = ARGV[1]
-                local members = redis.call('SMEMBERS', processingSet)
-                local removedCount = 0
-                
-                for i=1,#members do
-                    local member = members[i]
-                    local parts = {}
-                    for part in string.gmatch(member, "[^:]+") do
-                        table.insert(parts, part)
-                    end
-                    
-                    if #parts >= 2 then
-                        local timestamp = tonumber(parts[2])
-                        if timestamp and timestamp < tonumber(cutoffTime) then
-                            redis.call('SREM', processingSet, member)
-                            removedCount = removedCount + 1
-                        end
-                    end
-                end
-                
-                return removedCount
-                """;
-
-            Long removed = redisTemplate.execute(new DefaultRedisScript<>(script, Long.class),
-                    List.of(QueueConfig.PROCESSING_SET), String.valueOf(cutoffTime));
-
-            if (removed != null && removed > 0) {
-                log.info("Limpeza de processamento: {} itens removidos", removed);
+            // Leases expiram em início + processingTimeout; ajusta o corte para respeitar o timeout recebido
+            Duration leaseDuration = Duration.ofMinutes(queueProperties.getProcessingTimeoutMinutes());
+            long cutoff = System.currentTimeMillis() + leaseDuration.toMillis() - timeout.toMillis();
+
+            long removed = 0;
+            Long reaped;
+            do {
+                reaped = stringRedisTemplate.execute(REAP_LEASES_SCRIPT,
+                        List.of(QueueConfig.PROCESSING_LEASES, QueueConfig.PROCESSING_EXPIRY),
+                        String.valueOf(cutoff), String.valueOf(LEASE_REAP_BATCH_SIZE));
+                removed += reaped != null ? reaped : 0;
+            } while (reaped != null && reaped == LEASE_REAP_BATCH_SIZE);
+
+            if (removed > 0) {
+                log.info("Limpeza de processamento: {} leases expirados removidos", removed);
             }
         } catch (Exception e) {
             log.error("Erro na limpeza de processamento: {}", e.getMessage(), e);
         }
     }
 
+    @Override
+    public long promoteDueMessages(int maxBatch) {
+        try {
+            Long promoted = stringRedisTemplate.execute(PROMOTE_DUE_SCRIPT, PROMOTE_KEYS,
+                    String.valueOf(System.currentTimeMillis()), String.valueOf(maxBatch));
+            return promoted != null ? promoted : 0;
+        } catch (Exception e) {
+            log.error("Erro ao promover mensagens agendadas: {}", e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    // Mantém a mesma codificação usada por leftPush, para que o script possa mover o payload sem reserializar
+    @SuppressWarnings("unchecked")
+    private String toListPayload(QueueMessage message) throws Exception {
+        String payload = messageCodec.encode(message);
+        byte[] raw = ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(payload);
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    private Object fromListPayload(String payload) {
+        return redisTemplate.getValueSerializer().deserialize(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
     private double calculatePriorityScore(QueueMessage message) {
+        // A lane já separa por prioridade; dentro dela a ordem é FIFO, com leve vantagem para retentativas
         double baseScore = System.currentTimeMillis();
 
-        if (message.isHighPriority()) {
-            baseScore -= 1_000_000;
-        }
-
         baseScore -= (message.getRetryCount() * 10_000);
 
         return baseScore;
@@ -304,26 +521,9 @@ public class RedisQueueService implements QueueService {
 
     private void removeFromProcessing(QueueMessage message) {
         try {
-            String pattern = message.getTriageId() + ":*";
-            String script = """
-                local processingSet = KEYS[1]
-                local pattern = ARGV[1]
-                local members = redis.call('SMEMBERS', processingSet)
-                local removedCount = 0
-                
-                for i=1,#members do
-                    local member = members[i]
-                    if string.match(member, pattern) then
-                        redis.call('SREM', processingSet, member)
-                        removedCount = removedCount + 1
-                    end
-                end
-                
-                return removedCount
-                """;
-
-            redisTemplate.execute(new DefaultRedisScript<>(script, Long.class),
-                    List.of(QueueConfig.PROCESSING_SET), message.getTriageId() + ":.*");
+            stringRedisTemplate.execute(RELEASE_LEASE_SCRIPT,
+                    List.of(QueueConfig.PROCESSING_LEASES, QueueConfig.PROCESSING_EXPIRY),
+                    message.getTriageId());
         } catch (Exception e) {
             log.error("Erro ao remover do processamento: {}", e.getMessage(), e);
         }
@@ -334,4 +534,11 @@ public class RedisQueueService implements QueueService {
             super(message, cause);
         }
     }
+
+    // Fila cheia: a mensagem não foi gravada e o chamador deve tentar mais tarde
+    public static class QueueFullException extends QueueException {
+        public QueueFullException(String message) {
+            super(message, null);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,611 @@
+package br.com.fiap.fase5triagemsus.infrastructure.services.queue;
+
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.domain.valueobjects.QueueMessage;
+import br.com.fiap.fase5triagemsus.infrastructure.config.QueueConfig;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.QueueProperties;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.QueueStatsStore.Source;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.QueueStatsStore.Stat;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.codec.QueueMessageCodec;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.RedisQueueService.QueueException;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.RedisQueueService.QueueFullException;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.XReadArgs;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Backend de filas baseado em Redis Streams com consumer groups.
+ * Cada mensagem entregue fica na pending entries list (PEL) do consumidor até o XACK,
+ * garantindo entrega at-least-once mesmo se o nó cair durante o processamento.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "triage.queue", name = "backend", havingValue = "stream")
+public class RedisStreamQueueService implements QueueService {
+
+    private static final String PAYLOAD_FIELD = "payload";
+    private static final String DELAYED_MEMBER_SEPARATOR = "|";
+    private static final String DELAYED_KEY = QueueConfig.streamKey(QueueConfig.DELAYED_SET);
+
+    private static final List<String> PRIORITY_LANES = Arrays.stream(PriorityLevel.values())
+            .map(QueueConfig::priorityLane)
+            .toList();
+
+    private static final List<String> CONSUMED_QUEUES = Stream.concat(
+            Stream.of(QueueConfig.TRIAGE_QUEUE, QueueConfig.TRIAGE_RETRY_QUEUE),
+            PRIORITY_LANES.stream()
+    ).toList();
+
+    // Entradas já entregues continuam no stream até o XACK/XDEL: pendentes = XLEN menos a PEL do grupo,
+    // em processamento = PEL de cada stream consumido
+    private static final List<Source> STATS_SOURCES = Stream.of(
+            Stream.concat(Stream.of(QueueConfig.TRIAGE_QUEUE), PRIORITY_LANES.stream())
+                    .map(queue -> Source.xbacklog(QueueConfig.streamKey(queue), Stat.PENDING)),
+            CONSUMED_QUEUES.stream()
+                    .map(queue -> Source.xpending(QueueConfig.streamKey(queue), Stat.PROCESSING)),
+            Stream.of(
+                    Source.xbacklog(QueueConfig.streamKey(QueueConfig.TRIAGE_RETRY_QUEUE), Stat.RETRY),
+                    Source.zcard(DELAYED_KEY, Stat.RETRY),
+                    Source.xlen(QueueConfig.streamKey(QueueConfig.TRIAGE_DLQ), Stat.DEAD_LETTER))
+    ).flatMap(Function.identity()).toList();
+
+    // Ordem de leitura do consumo bloqueante: lanes mais urgentes primeiro, depois regular e retry
+    @SuppressWarnings("unchecked")
+    private static final XReadArgs.StreamOffset<String>[] AWAITED_OFFSETS = Stream.concat(
+            PRIORITY_LANES.stream(),
+            Stream.of(QueueConfig.TRIAGE_QUEUE, QueueConfig.TRIAGE_RETRY_QUEUE)
+    ).map(queue -> XReadArgs.StreamOffset.lastConsumed(QueueConfig.streamKey(queue)))
+            .toArray(XReadArgs.StreamOffset[]::new);
+
+    // Streams de trabalho nunca são aparados: tudo que resta neles ainda não foi lido ou está na PEL, então
+    // um MAXLEN descartaria triagens. Com o stream em max-length a escrita é recusada (contrapressão);
+    // limite 0 aceita sempre
+    private static final DefaultRedisScript<String> ADD_SCRIPT = new DefaultRedisScript<>("""
+            local limit = tonumber(ARGV[2])
+            if limit > 0 and redis.call('XLEN', KEYS[1]) >= limit then
+                return false
+            end
+            return redis.call('XADD', KEYS[1], '*', 'payload', ARGV[1])
+            """, String.class);
+
+    // A DLQ não é consumida; ali o MAXLEN só descarta o histórico mais antigo
+    private static final DefaultRedisScript<String> DEAD_LETTER_SCRIPT = new DefaultRedisScript<>("""
+            return redis.call('XADD', KEYS[1], 'MAXLEN', '~', ARGV[2], '*', 'payload', ARGV[1])
+            """, String.class);
+
+    // KEYS[1] é o ZSET de agendados e as demais são os streams de destino possíveis; o script só escreve em chaves
+    // declaradas, e membro com destino fora de KEYS fica no ZSET. As chaves não têm hash tag em comum, então o
+    // script exige Redis standalone (como BlockingRedisConnections), não Cluster
+    private static final List<String> PROMOTE_KEYS = Stream.concat(
+            Stream.of(DELAYED_KEY),
+            CONSUMED_QUEUES.stream().map(QueueConfig::streamKey)
+    ).toList();
+
+    private static final DefaultRedisScript<Long> PROMOTE_DUE_SCRIPT = new DefaultRedisScript<>("""
+            local delayed = KEYS[1]
+            local targets = {}
+            for i = 2, #KEYS do
+                targets[KEYS[i]] = true
+            end
+            local due = redis.call('ZRANGEBYSCORE', delayed, '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+
+            local promoted = 0
+            for i = 1, #due do
+                local member = due[i]
+                local sep = string.find(member, '|', 1, true)
+                local stream = sep and (string.sub(member, 1, sep - 1) .. ARGV[3])
+                if not sep then
+                    redis.call('ZREM', delayed, member)
+                elseif targets[stream] then
+                    redis.call('XADD', stream, '*', 'payload', string.sub(member, sep + 1))
+                    redis.call('ZREM', delayed, member)
+                    promoted = promoted + 1
+                end
+            end
+
+            return promoted
+            """, Long.class);
+
+    // Transfere para este consumidor as entradas paradas na PEL e devolve {cursor, id1, payload1, id2, ...};
+    // entradas já apagadas do stream só saem da PEL. O reenvio passa pelo retry/DLQ em Java, para que o
+    // retryCount suba e uma mensagem que derruba o consumidor não circule para sempre
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> AUTOCLAIM_SCRIPT = new DefaultRedisScript<>("""
+            local stream = KEYS[1]
+            local group = ARGV[1]
+            local claimed = redis.call('XAUTOCLAIM', stream, group, ARGV[2], ARGV[3], ARGV[4], 'COUNT', ARGV[5])
+            local entries = claimed[2]
+            local result = {claimed[1]}
+
+            for i = 1, #entries do
+                local id = entries[i][1]
+                local fields = entries[i][2]
+                local payload = false
+                if fields then
+                    for j = 1, #fields, 2 do
+                        if fields[j] == 'payload' then
+                            payload = fields[j + 1]
+                        end
+                    end
+                end
+                if payload then
+                    table.insert(result, id)
+                    table.insert(result, payload)
+                else
+                    redis.call('XACK', stream, group, id)
+                    redis.call('XDEL', stream, id)
+                end
+            end
+
+            return result
+            """, List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final QueueMessageCodec messageCodec;
+    private final QueueProperties queueProperties;
+    private final BlockingRedisConnections blockingConnections;
+    private final QueueStatsStore queueStatsStore;
+
+    private final Map<String, InFlightEntry> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> initializedGroups = ConcurrentHashMap.newKeySet();
+
+    private String consumerName;
+
+    @PostConstruct
+    void init() {
+        consumerName = resolveConsumerName();
+        CONSUMED_QUEUES.forEach(queue -> ensureGroup(QueueConfig.streamKey(queue)));
+        log.info("Backend de filas Redis Streams ativo: grupo={}, consumidor={}", group(), consumerName);
+    }
+
+    /**
+     * Só a entrada de trabalho novo sofre contrapressão; retries já foram aceitos antes e não podem ser
+     * recusados depois do ACK da entrega anterior.
+     */
+    @Override
+    public void sendToQueue(String queueName, QueueMessage message) {
+        boolean bounded = !QueueConfig.TRIAGE_RETRY_QUEUE.equals(queueName);
+        String id;
+        try {
+            String payload = messageCodec.encode(message);
+            id = stringRedisTemplate.execute(ADD_SCRIPT, List.of(QueueConfig.streamKey(queueName)),
+                    payload, String.valueOf(bounded ? queueProperties.getStream().getMaxLength() : 0));
+        } catch (Exception e) {
+            throw new QueueException("Erro ao enviar mensagem para stream", e);
+        }
+        if (id == null) {
+            throw new QueueFullException(String.format("Stream %s atingiu o limite de %d mensagens",
+                    QueueConfig.streamKey(queueName), queueProperties.getStream().getMaxLength()));
+        }
+    }
+
+    @Override
+    public void sendToQueue(String queueName, QueueMessage message, Duration delay) {
+        if (delay == null || delay.isZero() || delay.isNegative()) {
+            sendToQueue(queueName, message);
+            return;
+        }
+        if (!CONSUMED_QUEUES.contains(queueName)) {
+            throw new QueueException("Agendamento não suportado para a fila " + queueName, null);
+        }
+        try {
+            String member = queueName + DELAYED_MEMBER_SEPARATOR + messageCodec.encode(message);
+            long dueAt = System.currentTimeMillis() + delay.toMillis();
+            stringRedisTemplate.opsForZSet().add(DELAYED_KEY, member, dueAt);
+        } catch (Exception e) {
+            throw new QueueException("Erro ao agendar mensagem", e);
+        }
+    }
+
+    @Override
+    public void sendToPriorityQueue(QueueMessage message) {
+        sendToQueue(QueueConfig.priorityLane(message.getPriorityLevel()), message);
+    }
+
+    @Override
+    public void sendBatch(List<QueueMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        try {
+            List<MapRecord<byte[], byte[], byte[]>> records = new ArrayList<>(messages.size());
+            Map<String, Long> incoming = new HashMap<>();
+            for (QueueMessage message : messages) {
+                String queue = queueProperties.getEnablePriorityQueue()
+                        ? QueueConfig.priorityLane(message.getPriorityLevel())
+                        : QueueConfig.TRIAGE_QUEUE;
+                incoming.merge(QueueConfig.streamKey(queue), 1L, Long::sum);
+                records.add(StreamRecords.rawBytes(Map.of(
+                                PAYLOAD_FIELD.getBytes(StandardCharsets.UTF_8),
+                                messageCodec.encode(message).getBytes(StandardCharsets.UTF_8)))
+                        .withStreamKey(QueueConfig.streamKey(queue).getBytes(StandardCharsets.UTF_8)));
+            }
+            rejectIfFull(incoming);
+
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                records.forEach(record -> connection.streamCommands()
+                        .xAdd(record, RedisStreamCommands.XAddOptions.none()));
+                return null;
+            });
+        } catch (QueueFullException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new QueueException("Erro ao enviar lote para stream", e);
+        }
+    }
+
+    // Checagem prévia com um XLEN por stream do lote, no mesmo pipeline e sem script;
+    // lotes concorrentes podem ultrapassar o limite juntos, em no máximo um lote cada
+    private void rejectIfFull(Map<String, Long> incoming) {
+        long maxLength = queueProperties.getStream().getMaxLength();
+        List<String> streams = new ArrayList<>(incoming.keySet());
+        List<Object> sizes = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            streams.forEach(stream -> connection.streamCommands().xLen(stream.getBytes(StandardCharsets.UTF_8)));
+            return null;
+        });
+        for (int i = 0; i < streams.size(); i++) {
+            long size = sizes.get(i) instanceof Number number ? number.longValue() : 0;
+            if (size + incoming.get(streams.get(i)) > maxLength) {
+                throw new QueueFullException(String.format("Stream %s atingiu o limite de %d mensagens",
+                        streams.get(i), maxLength));
+            }
+        }
+    }
+
+    @Override
+    public void sendToRetryQueue(QueueMessage message, Duration delay) {
+        QueueMessage retryMessage = message.withIncrementedRetry();
+        sendToQueue(QueueConfig.TRIAGE_RETRY_QUEUE, retryMessage, delay);
+    }
+
+    @Override
+    public void sendToDeadLetterQueue(QueueMessage message, String reason) {
+        try {
+            stringRedisTemplate.execute(DEAD_LETTER_SCRIPT, List.of(QueueConfig.streamKey(QueueConfig.TRIAGE_DLQ)),
+                    messageCodec.encode(message), String.valueOf(queueProperties.getStream().getMaxLength()));
+            queueStatsStore.recordDeadLetter(message.getTriageId(), reason);
+        } catch (Exception e) {
+            throw new QueueException("Erro ao enviar para DLQ", e);
+        }
+    }
+
+    @Override
+    public Optional<QueueMessage> receiveFromQueue(String queueName) {
+        return readGroup(queueName, StreamReadOptions.empty().count(1)).stream().findFirst();
+    }
+
+    @Override
+    public Optional<QueueMessage> receiveFromQueue(String queueName, Duration timeout) {
+        return readGroup(queueName, StreamReadOptions.empty().count(1).block(timeout)).stream().findFirst();
+    }
+
+    @Override
+    public List<QueueMessage> receiveMultipleFromQueue(String queueName, int count) {
+        if (count <= 0) {
+            return List.of();
+        }
+        return readGroup(queueName, StreamReadOptions.empty().count(count));
+    }
+
+    @Override
+    public List<QueueMessage> receiveFromPriorityLane(PriorityLevel priority, int count) {
+        return receiveMultipleFromQueue(QueueConfig.priorityLane(priority), count);
+    }
+
+    /**
+     * XREADGROUP BLOCK sobre todos os streams consumidos em uma única chamada.
+     * O COUNT do Redis vale por stream, então o retorno pode exceder {@code maxCount}.
+     */
+    @Override
+    public List<QueueMessage> awaitMessages(int maxCount, Duration timeout) {
+        if (maxCount <= 0) {
+            return List.of();
+        }
+        try {
+            List<StreamMessage<String, String>> entries = blockingConnections.execute(redis -> redis.xreadgroup(
+                    io.lettuce.core.Consumer.from(group(), consumerName),
+                    XReadArgs.Builder.block(timeout).count(maxCount),
+                    AWAITED_OFFSETS));
+            if (entries == null || entries.isEmpty()) {
+                return List.of();
+            }
+
+            List<QueueMessage> messages = new ArrayList<>(entries.size());
+            for (StreamMessage<String, String> entry : entries) {
+                toMessage(entry.getStream(), RecordId.of(entry.getId()), entry.getBody().get(PAYLOAD_FIELD))
+                        .ifPresent(messages::add);
+            }
+            return messages;
+        } catch (Exception e) {
+            log.error("Erro ao aguardar mensagens nos streams: {}", e.getMessage(), e);
+            return List.of();
+        }
+    }
+
+    @Override
+    public void ackMessage(String queueName, QueueMessage message) {
+        try {
+            InFlightEntry entry = inFlight.remove(message.getTriageId());
+            if (entry == null) {
+                log.debug("Mensagem sem entrada pendente neste nó: {}", message.getTriageId());
+                return;
+            }
+            acknowledge(entry.streamKey(), entry.recordId());
+            log.debug("Mensagem confirmada: {}", message.getTriageId());
+        } catch (Exception e) {
+            log.error("Erro ao confirmar mensagem: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void nackMessage(String queueName, QueueMessage message) {
+        try {
+            ackMessage(queueName, message);
+            retryOrDeadLetter(message, "Max retries exceeded");
+            log.debug("Mensagem rejeitada: {}", message.getTriageId());
+        } catch (Exception e) {
+            log.error("Erro ao rejeitar mensagem: {}", e.getMessage(), e);
+        }
+    }
+
+    private void retryOrDeadLetter(QueueMessage message, String reason) {
+        if (message.canRetry(QueueConfig.DEFAULT_MAX_RETRIES)) {
+            Duration delay = Duration.ofSeconds(message.getRetryDelaySeconds());
+            sendToRetryQueue(message, delay);
+        } else {
+            sendToDeadLetterQueue(message, reason);
+        }
+    }
+
+    @Override
+    public void markAsProcessing(QueueMessage message) {
+        // A PEL do consumer group já registra a mensagem como em processamento
+        log.debug("Mensagem em processamento (PEL): {}", message.getTriageId());
+    }
+
+    @Override
+    public void markAsCompleted(QueueMessage message) {
+        try {
+            queueStatsStore.recordCompleted(message.getTriageId());
+            log.debug("Mensagem marcada como concluída: {}", message.getTriageId());
+        } catch (Exception e) {
+            log.error("Erro ao marcar como concluída: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void markAsFailed(QueueMessage message, String reason) {
+        try {
+            queueStatsStore.recordFailed(message.getTriageId(), reason);
+            log.debug("Mensagem marcada como falhada: {} - {}", message.getTriageId(), reason);
+        } catch (Exception e) {
+            log.error("Erro ao marcar como falhada: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long getQueueSize(String queueName) {
+        try {
+            Long size = stringRedisTemplate.opsForStream().size(QueueConfig.streamKey(queueName));
+            return size != null ? size : 0;
+        } catch (Exception e) {
+            log.error("Erro ao obter tamanho do stream {}: {}", queueName, e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    @Override
+    public long getProcessingCount() {
+        try {
+            long total = 0;
+            for (String queue : CONSUMED_QUEUES) {
+                String streamKey = QueueConfig.streamKey(queue);
+                ensureGroup(streamKey);
+                PendingMessagesSummary summary = stringRedisTemplate.opsForStream().pending(streamKey, group());
+                total += summary != null ? summary.getTotalPendingMessages() : 0;
+            }
+            return total;
+        } catch (Exception e) {
+            log.error("Erro ao obter contagem de processamento: {}", e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    @Override
+    public QueueStats getQueueStats() {
+        try {
+            return queueStatsStore.snapshot(STATS_SOURCES, group());
+        } catch (Exception e) {
+            log.error("Erro ao obter estatísticas: {}", e.getMessage(), e);
+            return new QueueStats(0, 0, 0, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Reenfileira entradas pendentes há mais de {@code timeout} (consumidor morto ou travado)
+     * via XAUTOCLAIM, para que qualquer nó do grupo possa processá-las novamente. Cada reenvio conta como
+     * retry: depois do máximo a mensagem vai para a DLQ.
+     */
+    @Override
+    public void cleanupProcessing(Duration timeout) {
+        long requeued = 0;
+        for (String queue : CONSUMED_QUEUES) {
+            requeued += autoClaim(QueueConfig.streamKey(queue), timeout);
+        }
+        if (requeued > 0) {
+            log.info("Auto-claim de processamento: {} mensagens reenfileiradas", requeued);
+        }
+    }
+
+    @Override
+    public long promoteDueMessages(int maxBatch) {
+        try {
+            Long promoted = stringRedisTemplate.execute(PROMOTE_DUE_SCRIPT, PROMOTE_KEYS,
+                    String.valueOf(System.currentTimeMillis()), String.valueOf(maxBatch),
+                    QueueConfig.STREAM_SUFFIX);
+            return promoted != null ? promoted : 0;
+        } catch (Exception e) {
+            log.error("Erro ao promover mensagens agendadas: {}", e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private long autoClaim(String streamKey, Duration timeout) {
+        long requeued = 0;
+        String cursor = "0-0";
+        try {
+            ensureGroup(streamKey);
+            do {
+                List<Object> result = stringRedisTemplate.execute(AUTOCLAIM_SCRIPT, List.of(streamKey),
+                        group(), consumerName, String.valueOf(timeout.toMillis()), cursor,
+                        String.valueOf(queueProperties.getStream().getClaimBatchSize()));
+                if (result == null || result.size() < 2) {
+                    break;
+                }
+                cursor = String.valueOf(result.get(0));
+                for (int i = 1; i + 1 < result.size(); i += 2) {
+                    RecordId recordId = RecordId.of(String.valueOf(result.get(i)));
+                    if (requeueClaimed(streamKey, recordId, String.valueOf(result.get(i + 1)))) {
+                        requeued++;
+                    }
+                }
+            } while (!"0-0".equals(cursor));
+        } catch (Exception e) {
+            log.error("Erro no auto-claim do stream {}: {}", streamKey, e.getMessage(), e);
+        }
+        return requeued;
+    }
+
+    // A entrada só sai da PEL depois do reenvio: se o nó cair no meio, outro auto-claim a recupera
+    private boolean requeueClaimed(String streamKey, RecordId recordId, String payload) {
+        QueueMessage message;
+        try {
+            message = messageCodec.decode(payload);
+        } catch (Exception e) {
+            log.error("Mensagem inválida descartada do stream {} ({}): {}", streamKey, recordId, e.getMessage());
+            acknowledge(streamKey, recordId);
+            return false;
+        }
+        retryOrDeadLetter(message, "Max retries exceeded após timeout de processamento");
+        acknowledge(streamKey, recordId);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<QueueMessage> readGroup(String queueName, StreamReadOptions options) {
+        String streamKey = QueueConfig.streamKey(queueName);
+        try {
+            ensureGroup(streamKey);
+            List<MapRecord<String, Object, Object>> records = stringRedisTemplate.opsForStream().read(
+                    Consumer.from(group(), consumerName),
+                    options,
+                    StreamOffset.create(streamKey, ReadOffset.lastConsumed())
+            );
+            if (records == null || records.isEmpty()) {
+                return List.of();
+            }
+
+            List<QueueMessage> messages = new ArrayList<>(records.size());
+            for (MapRecord<String, Object, Object> record : records) {
+                toMessage(streamKey, record.getId(), record.getValue().get(PAYLOAD_FIELD)).ifPresent(messages::add);
+            }
+            return messages;
+        } catch (Exception e) {
+            log.error("Erro ao ler do stream {}: {}", streamKey, e.getMessage(), e);
+            return List.of();
+        }
+    }
+
+    private Optional<QueueMessage> toMessage(String streamKey, RecordId recordId, Object payload) {
+        try {
+            QueueMessage message = messageCodec.decode(String.valueOf(payload));
+            inFlight.put(message.getTriageId(), new InFlightEntry(streamKey, recordId));
+            return Optional.of(message);
+        } catch (Exception e) {
+            log.error("Mensagem inválida descartada do stream {} ({}): {}", streamKey, recordId, e.getMessage());
+            acknowledge(streamKey, recordId);
+            return Optional.empty();
+        }
+    }
+
+    private void acknowledge(String streamKey, RecordId recordId) {
+        stringRedisTemplate.opsForStream().acknowledge(streamKey, group(), recordId);
+        stringRedisTemplate.opsForStream().delete(streamKey, recordId);
+    }
+
+    private void ensureGroup(String streamKey) {
+        if (initializedGroups.contains(streamKey)) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForStream().createGroup(streamKey, ReadOffset.from("0"), group());
+        } catch (RedisSystemException e) {
+            if (!isBusyGroup(e)) {
+                throw e;
+            }
+        }
+        initializedGroups.add(streamKey);
+    }
+
+    private boolean isBusyGroup(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains("BUSYGROUP")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String group() {
+        return queueProperties.getStream().getConsumerGroup();
+    }
+
+    private String resolveConsumerName() {
+        String configured = queueProperties.getStream().getConsumerName();
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+
+    private record InFlightEntry(String streamKey, RecordId recordId) {}
+}
@@ -0,0 +1,117 @@
+package br.com.fiap.fase5triagemsus.infrastructure.services.queue;
+
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.domain.valueobjects.QueueMessage;
+import br.com.fiap.fase5triagemsus.infrastructure.config.QueueConfig;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.QueueProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Monta lotes de mensagens a partir das lanes (uma por {@link PriorityLevel}, mais a fila regular e a de retry)
+ * usando smooth weighted round-robin: lanes de maior peso recebem mais vagas por lote, mas nenhuma lane
+ * com peso positivo fica sem atendimento enquanto houver mensagens nela.
+ */
+@Slf4j
+@Component
+public class WeightedLaneDispatcher {
+
+    private final List<Lane> lanes;
+    private final int[] currentWeights;
+
+    public WeightedLaneDispatcher(QueueService queueService, QueueProperties queueProperties) {
+        List<Lane> configured = new ArrayList<>();
+
+        if (queueProperties.getEnablePriorityQueue()) {
+            for (PriorityLevel priority : PriorityLevel.values()) {
+                String name = priority.name().toLowerCase();
+                configured.add(new Lane(name, weightOf(queueProperties, name),
+                        count -> queueService.receiveFromPriorityLane(priority, count)));
+            }
+        }
+
+        configured.add(new Lane("regular", weightOf(queueProperties, "regular"),
+                count -> queueService.receiveMultipleFromQueue(QueueConfig.TRIAGE_QUEUE, count)));
+
+        if (queueProperties.getEnableRetryQueue()) {
+            configured.add(new Lane("retry", weightOf(queueProperties, "retry"),
+                    count -> queueService.receiveMultipleFromQueue(QueueConfig.TRIAGE_RETRY_QUEUE, count)));
+        }
+
+        this.lanes = configured.stream().filter(lane -> lane.weight() > 0).toList();
+        this.currentWeights = new int[lanes.size()];
+        log.info("Lanes de consumo configuradas: {}", lanes.stream()
+                .map(lane -> lane.name() + "=" + lane.weight())
+                .toList());
+    }
+
+    public List<QueueMessage> nextBatch(int batchSize) {
+        List<QueueMessage> batch = new ArrayList<>(batchSize);
+        boolean[] exhausted = new boolean[lanes.size()];
+
+        while (batch.size() < batchSize) {
+            int[] plan = plan(batchSize - batch.size(), exhausted);
+            boolean planned = false;
+
+            for (int i = 0; i < lanes.size(); i++) {
+                if (plan[i] == 0) {
+                    continue;
+                }
+                planned = true;
+                List<QueueMessage> received = lanes.get(i).receiver().apply(plan[i]);
+                batch.addAll(received);
+                if (received.size() < plan[i]) {
+                    exhausted[i] = true;
+                }
+            }
+
+            if (!planned) {
+                break;
+            }
+        }
+
+        return batch;
+    }
+
+    private synchronized int[] plan(int slots, boolean[] exhausted) {
+        int[] plan = new int[lanes.size()];
+
+        int totalWeight = 0;
+        for (int i = 0; i < lanes.size(); i++) {
+            if (!exhausted[i]) {
+                totalWeight += lanes.get(i).weight();
+            }
+        }
+        if (totalWeight == 0) {
+            return plan;
+        }
+
+        for (int slot = 0; slot < slots; slot++) {
+            int selected = -1;
+            for (int i = 0; i < lanes.size(); i++) {
+                if (exhausted[i]) {
+                    continue;
+                }
+                currentWeights[i] += lanes.get(i).weight();
+                if (selected < 0 || currentWeights[i] > currentWeights[selected]) {
+                    selected = i;
+                }
+            }
+            currentWeights[selected] -= totalWeight;
+            plan[selected]++;
+        }
+
+        return plan;
+    }
+
+    private static int weightOf(QueueProperties queueProperties, String lane) {
+        Integer weight = queueProperties.getLaneWeights().get(lane);
+        return weight != null ? Math.max(0, weight) : 1;
+    }
+
+    private record Lane(String name, int weight, IntFunction<List<QueueMessage>> receiver) {}
+}
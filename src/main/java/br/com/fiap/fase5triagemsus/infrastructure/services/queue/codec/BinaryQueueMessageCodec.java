@@ -0,0 +1,213 @@
+package br.com.fiap.fase5triagemsus.infrastructure.services.queue.codec;
+
+import br.com.fiap.fase5triagemsus.domain.valueobjects.QueueMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Layout binário versionado, em Base64 para atravessar os scripts Lua e serializers de String sem perdas.
+ * Versão 1:
+ * <pre>
+ * version:u8 | presença:u8 | triageId | patientId | symptoms | age:varint | weight:f64 | height:f64
+ *   | preExistingConditions | createdAt | priority:u8 | retryCount:varint | lastRetryAt
+ * </pre>
+ * Strings são UTF-8 com tamanho em varint, listas são varint + itens e datas são segundos epoch (UTC)
+ * em varint + nanos em varint. Campos anuláveis só são gravados quando o bit de presença está ligado.
+ * Um payload JSON começa com '{', e o Base64 de um primeiro byte menor que 4 começa com 'A', então os
+ * formatos não se confundem na leitura.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "triage.queue", name = "codec", havingValue = "binary")
+public class BinaryQueueMessageCodec implements QueueMessageCodec {
+
+    static final byte VERSION = 1;
+
+    private static final int HAS_TRIAGE_ID = 1;
+    private static final int HAS_PATIENT_ID = 1 << 1;
+    private static final int HAS_AGE = 1 << 2;
+    private static final int HAS_WEIGHT = 1 << 3;
+    private static final int HAS_HEIGHT = 1 << 4;
+    private static final int HAS_CREATED_AT = 1 << 5;
+    private static final int HAS_LAST_RETRY_AT = 1 << 6;
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String encode(QueueMessage message) {
+        return write(message);
+    }
+
+    @Override
+    public QueueMessage decode(String payload) {
+        if (isBinary(payload)) {
+            return read(payload);
+        }
+        return JsonQueueMessageCodec.readJson(objectMapper, payload);
+    }
+
+    static boolean isBinary(String payload) {
+        return payload != null && !payload.isEmpty() && payload.charAt(0) != '{' && !Character.isWhitespace(payload.charAt(0));
+    }
+
+    public static String write(QueueMessage message) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeByte(VERSION);
+            out.writeByte(presence(message));
+            if (message.getTriageId() != null) {
+                writeString(out, message.getTriageId());
+            }
+            if (message.getPatientId() != null) {
+                writeString(out, message.getPatientId());
+            }
+            writeStrings(out, message.getSymptoms());
+            if (message.getPatientAge() != null) {
+                writeVarInt(out, message.getPatientAge());
+            }
+            if (message.getPatientWeight() != null) {
+                out.writeDouble(message.getPatientWeight());
+            }
+            if (message.getPatientHeight() != null) {
+                out.writeDouble(message.getPatientHeight());
+            }
+            writeStrings(out, message.getPreExistingConditions());
+            if (message.getCreatedAt() != null) {
+                writeDateTime(out, message.getCreatedAt());
+            }
+            out.writeByte(message.getPriority());
+            writeVarInt(out, message.getRetryCount());
+            if (message.getLastRetryAt() != null) {
+                writeDateTime(out, message.getLastRetryAt());
+            }
+        } catch (IOException e) {
+            throw new CodecException("Erro ao serializar mensagem em binário", e);
+        }
+        return Base64.getEncoder().withoutPadding().encodeToString(buffer.toByteArray());
+    }
+
+    public static QueueMessage read(String payload) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getDecoder().decode(payload);
+        } catch (IllegalArgumentException e) {
+            throw new CodecException("Payload de mensagem em formato desconhecido", e);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new CodecException("Versão de mensagem binária não suportada: " + version);
+            }
+            int presence = in.readUnsignedByte();
+            return QueueMessage.builder()
+                    .triageId((presence & HAS_TRIAGE_ID) != 0 ? readString(in) : null)
+                    .patientId((presence & HAS_PATIENT_ID) != 0 ? readString(in) : null)
+                    .symptoms(readStrings(in))
+                    .patientAge((presence & HAS_AGE) != 0 ? readVarInt(in) : null)
+                    .patientWeight((presence & HAS_WEIGHT) != 0 ? in.readDouble() : null)
+                    .patientHeight((presence & HAS_HEIGHT) != 0 ? in.readDouble() : null)
+                    .preExistingConditions(readStrings(in))
+                    .createdAt((presence & HAS_CREATED_AT) != 0 ? readDateTime(in) : null)
+                    .priority(in.readUnsignedByte())
+                    .retryCount(readVarInt(in))
+                    .lastRetryAt((presence & HAS_LAST_RETRY_AT) != 0 ? readDateTime(in) : null)
+                    .build();
+        } catch (IOException e) {
+            throw new CodecException("Mensagem binária truncada", e);
+        }
+    }
+
+    private static int presence(QueueMessage message) {
+        int presence = 0;
+        if (message.getTriageId() != null) presence |= HAS_TRIAGE_ID;
+        if (message.getPatientId() != null) presence |= HAS_PATIENT_ID;
+        if (message.getPatientAge() != null) presence |= HAS_AGE;
+        if (message.getPatientWeight() != null) presence |= HAS_WEIGHT;
+        if (message.getPatientHeight() != null) presence |= HAS_HEIGHT;
+        if (message.getCreatedAt() != null) presence |= HAS_CREATED_AT;
+        if (message.getLastRetryAt() != null) presence |= HAS_LAST_RETRY_AT;
+        return presence;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        writeVarInt(out, values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = readVarInt(in);
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        writeVarLong(out, value.toEpochSecond(ZoneOffset.UTC));
+        writeVarInt(out, value.getNano());
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        long epochSecond = readVarLong(in);
+        int nano = readVarInt(in);
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    // Sem zigzag: os valores gravados (tamanhos, idade, retries, segundos desde 1970) não são negativos
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new CodecException("Varint malformado na mensagem binária");
+    }
+}
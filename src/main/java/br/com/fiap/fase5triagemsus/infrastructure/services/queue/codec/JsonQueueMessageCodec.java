@@ -0,0 +1,43 @@
+package br.com.fiap.fase5triagemsus.infrastructure.services.queue.codec;
+
+import br.com.fiap.fase5triagemsus.domain.valueobjects.QueueMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Formato original: JSON com datas em ISO-8601. Lê também payloads binários.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "triage.queue", name = "codec", havingValue = "json", matchIfMissing = true)
+public class JsonQueueMessageCodec implements QueueMessageCodec {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String encode(QueueMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (Exception e) {
+            throw new CodecException("Erro ao serializar mensagem em JSON", e);
+        }
+    }
+
+    @Override
+    public QueueMessage decode(String payload) {
+        if (BinaryQueueMessageCodec.isBinary(payload)) {
+            return BinaryQueueMessageCodec.read(payload);
+        }
+        return readJson(objectMapper, payload);
+    }
+
+    static QueueMessage readJson(ObjectMapper objectMapper, String payload) {
+        try {
+            return objectMapper.readValue(payload, QueueMessage.class);
+        } catch (Exception e) {
+            throw new CodecException("Erro ao ler mensagem em JSON", e);
+        }
+    }
+}
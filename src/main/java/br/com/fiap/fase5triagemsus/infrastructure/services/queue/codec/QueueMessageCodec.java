@@ -0,0 +1,25 @@
+package br.com.fiap.fase5triagemsus.infrastructure.services.queue.codec;
+
+import br.com.fiap.fase5triagemsus.domain.valueobjects.QueueMessage;
+
+/**
+ * Formato do payload de {@link QueueMessage} gravado no Redis. O formato de escrita é escolhido por
+ * {@code triage.queue.codec}; a leitura aceita qualquer formato conhecido, para que mensagens antigas
+ * (ou gravadas por nós ainda na versão anterior) continuem sendo consumidas.
+ */
+public interface QueueMessageCodec {
+
+    String encode(QueueMessage message);
+
+    QueueMessage decode(String payload);
+
+    class CodecException extends RuntimeException {
+        public CodecException(String message) {
+            super(message);
+        }
+
+        public CodecException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
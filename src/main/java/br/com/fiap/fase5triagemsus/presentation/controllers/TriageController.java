@@ -3,12 +3,18 @@ package br.com.fiap.fase5triagemsus.presentation.controllers;
 import br.com.fiap.fase5triagemsus.domain.entities.Triage;
 import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
 import br.com.fiap.fase5triagemsus.domain.repositories.TriageRepository;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.resilience.GeminiCircuitBreaker;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.BusinessProperties;
 import br.com.fiap.fase5triagemsus.infrastructure.services.queue.QueueService;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.QueueStatsStore;
+import br.com.fiap.fase5triagemsus.presentation.dto.request.TriageBatchRequestDto;
 import br.com.fiap.fase5triagemsus.presentation.dto.request.TriageRequestDto;
 import br.com.fiap.fase5triagemsus.presentation.dto.response.ApiResponseDto;
 import br.com.fiap.fase5triagemsus.presentation.dto.response.QueueStatusDto;
+import br.com.fiap.fase5triagemsus.presentation.dto.response.TriageBatchResponseDto;
 import br.com.fiap.fase5triagemsus.presentation.dto.response.TriageResponseDto;
 import br.com.fiap.fase5triagemsus.presentation.dto.response.TriageStatusResponseDto;
+import br.com.fiap.fase5triagemsus.usecases.CreateTriageBatchUseCase;
 import br.com.fiap.fase5triagemsus.usecases.CreateTriageUseCase;
 import br.com.fiap.fase5triagemsus.usecases.FindTriageUseCase;
 import br.com.fiap.fase5triagemsus.usecases.UpdateTriageStatusUseCase;
@@ -18,7 +24,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -27,7 +35,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -36,10 +48,17 @@ import java.util.List;
 @Tag(name = "Triagens", description = "Operações relacionadas às triagens médicas")
 public class TriageController {
 
+    private static final int THROUGHPUT_WINDOW_MINUTES = 5;
+
     private final CreateTriageUseCase createTriageUseCase;
+    private final CreateTriageBatchUseCase createTriageBatchUseCase;
     private final FindTriageUseCase findTriageUseCase;
     private final TriageRepository triageRepository;
     private final QueueService queueService;
+    private final QueueStatsStore queueStatsStore;
+    private final GeminiCircuitBreaker geminiCircuitBreaker;
+    private final Validator validator;
+    private final BusinessProperties businessProperties;
 
     @PostMapping
     @Operation(summary = "Criar triagem", description = "Cria uma nova triagem para processamento assíncrono")
@@ -53,18 +72,7 @@ public class TriageController {
             HttpServletRequest httpRequest) {
 
         try {
-            List<CreateTriageUseCase.SymptomDto> symptomDtos = request.getSymptoms().stream()
-                    .map(s -> new CreateTriageUseCase.SymptomDto(
-                            s.getNormalizedDescription(),
-                            s.getIntensity(),
-                            s.getNormalizedLocation()
-                    ))
-                    .toList();
-
-            CreateTriageUseCase.CreateTriageCommand command = new CreateTriageUseCase.CreateTriageCommand(
-                    request.getPatientId(),
-                    symptomDtos
-            );
+            CreateTriageUseCase.CreateTriageCommand command = toCommand(request);
 
             Triage createdTriage = createTriageUseCase.execute(command);
             TriageResponseDto responseDto = TriageResponseDto.fromDomain(createdTriage);
@@ -102,6 +110,89 @@ public class TriageController {
         }
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Criar triagens em lote", description = "Cria várias triagens em uma requisição, com resultado por item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Lote processado; consulte o status de cada item"),
+            @ApiResponse(responseCode = "400", description = "Lote inválido")
+    })
+    public ResponseEntity<ApiResponseDto<TriageBatchResponseDto>> createTriageBatch(
+            @Valid @RequestBody TriageBatchRequestDto request,
+            HttpServletRequest httpRequest) {
+
+        try {
+            if (request.getTriages().size() > businessProperties.getMaxTriagesPerBatch()) {
+                throw new IllegalArgumentException(String.format(
+                        "Lote excede o máximo de %d triagens", businessProperties.getMaxTriagesPerBatch()));
+            }
+
+            List<CreateTriageBatchUseCase.BatchItemResult> invalid = new ArrayList<>();
+            List<CreateTriageBatchUseCase.BatchEntry> entries = new ArrayList<>(request.getTriages().size());
+
+            for (int i = 0; i < request.getTriages().size(); i++) {
+                TriageRequestDto item = request.getTriages().get(i);
+                Set<ConstraintViolation<TriageRequestDto>> violations =
+                        item != null ? validator.validate(item) : Set.of();
+                if (item == null || !violations.isEmpty()) {
+                    String error = item == null ? "Triagem vazia" : violations.stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .collect(Collectors.joining("; "));
+                    invalid.add(CreateTriageBatchUseCase.BatchItemResult.failed(i, null, error));
+                    continue;
+                }
+                try {
+                    entries.add(new CreateTriageBatchUseCase.BatchEntry(i, toCommand(item)));
+                } catch (IllegalArgumentException e) {
+                    invalid.add(CreateTriageBatchUseCase.BatchItemResult.failed(i, null, e.getMessage()));
+                }
+            }
+
+            List<CreateTriageBatchUseCase.BatchItemResult> results = new ArrayList<>(invalid);
+            if (!entries.isEmpty()) {
+                results.addAll(createTriageBatchUseCase.execute(entries));
+            }
+            results.sort(Comparator.comparingInt(CreateTriageBatchUseCase.BatchItemResult::index));
+
+            TriageBatchResponseDto responseDto = TriageBatchResponseDto.fromResults(results);
+            ApiResponseDto<TriageBatchResponseDto> response = ApiResponseDto.accepted(
+                    responseDto,
+                    String.format("%d de %d triagens enviadas para processamento",
+                            responseDto.getAccepted(), responseDto.getTotal())
+            );
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+
+        } catch (IllegalArgumentException e) {
+            ApiResponseDto<TriageBatchResponseDto> response = ApiResponseDto.error(
+                    e.getMessage(),
+                    HttpStatus.BAD_REQUEST,
+                    httpRequest.getRequestURI()
+            );
+            return ResponseEntity.badRequest().body(response);
+
+        } catch (Exception e) {
+            ApiResponseDto<TriageBatchResponseDto> response = ApiResponseDto.error(
+                    "Erro interno do servidor",
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    httpRequest.getRequestURI()
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    private CreateTriageUseCase.CreateTriageCommand toCommand(TriageRequestDto request) {
+        List<CreateTriageUseCase.SymptomDto> symptomDtos = request.getSymptoms().stream()
+                .map(s -> new CreateTriageUseCase.SymptomDto(
+                        s.getNormalizedDescription(),
+                        s.getIntensity(),
+                        s.getNormalizedLocation()
+                ))
+                .toList();
+
+        return new CreateTriageUseCase.CreateTriageCommand(request.getPatientId(), symptomDtos);
+    }
+
     @GetMapping("/{id}/status")
     @Operation(summary = "Status da triagem", description = "Consulta o status de processamento de uma triagem")
     public ResponseEntity<ApiResponseDto<TriageStatusResponseDto>> getTriageStatus(
@@ -184,7 +275,11 @@ public class TriageController {
     public ResponseEntity<ApiResponseDto<QueueStatusDto>> getQueueStatus() {
         try {
             QueueService.QueueStats stats = queueService.getQueueStats();
-            QueueStatusDto responseDto = QueueStatusDto.fromQueueStats(stats);
+            QueueStatusDto.QueueMetrics metrics = new QueueStatusDto.QueueMetrics(null,
+                    queueStatsStore.ratePerMinute(QueueStatsStore.COMPLETED, THROUGHPUT_WINDOW_MINUTES), null, null);
+            QueueStatusDto responseDto = QueueStatusDto.fromQueueStats(stats, metrics);
+            // Com o circuito aberto as triagens saem pelo fallback por regras, mesmo com a fila saudável
+            responseDto.setAiCircuitBreakerState(geminiCircuitBreaker.snapshot().state());
 
             ApiResponseDto<QueueStatusDto> response = ApiResponseDto.success(
                     responseDto,
@@ -0,0 +1,24 @@
+package br.com.fiap.fase5triagemsus.presentation.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TriageBatchRequestDto {
+
+    // Sem @Valid nos itens: cada triagem é validada individualmente para que um item inválido não rejeite o lote.
+    // O máximo vem de triage.business.max-triages-per-batch e é conferido no controller
+    @NotNull(message = "Lista de triagens é obrigatória")
+    @Size(min = 1, message = "Lote deve ter ao menos uma triagem")
+    private List<TriageRequestDto> triages;
+}
@@ -61,6 +61,18 @@ public class ApiResponseDto<T> {
         );
     }
 
+    public static <T> ApiResponseDto<T> accepted(T data, String message) {
+        return new ApiResponseDto<T>(
+                true,
+                message,
+                data,
+                null,
+                LocalDateTime.now(),
+                null,
+                HttpStatus.ACCEPTED.value()
+        );
+    }
+
     public static <T> ApiResponseDto<T> error(String message, HttpStatus status, String path) {
         ErrorDetails errorDetails = new ErrorDetails(status.name(), message, null);
 
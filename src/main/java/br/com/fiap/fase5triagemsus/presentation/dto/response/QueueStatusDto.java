@@ -48,6 +48,7 @@ public class QueueStatusDto {
     private Boolean isOperational;
     private Integer activeConsumers;
     private String systemMessage;
+    private String aiCircuitBreakerState;
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime lastUpdated;
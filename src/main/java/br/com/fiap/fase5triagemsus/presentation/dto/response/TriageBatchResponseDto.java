@@ -0,0 +1,59 @@
+package br.com.fiap.fase5triagemsus.presentation.dto.response;
+
+import br.com.fiap.fase5triagemsus.usecases.CreateTriageBatchUseCase;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TriageBatchResponseDto {
+
+    private int total;
+    private int accepted;
+    private int failed;
+    private List<ItemResultDto> items;
+
+    public static TriageBatchResponseDto fromResults(List<CreateTriageBatchUseCase.BatchItemResult> results) {
+        List<ItemResultDto> items = results.stream()
+                .map(ItemResultDto::fromResult)
+                .toList();
+        int accepted = (int) results.stream().filter(CreateTriageBatchUseCase.BatchItemResult::accepted).count();
+
+        return TriageBatchResponseDto.builder()
+                .total(results.size())
+                .accepted(accepted)
+                .failed(results.size() - accepted)
+                .items(items)
+                .build();
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ItemResultDto {
+
+        private int index;
+        private String triageId;
+        private String status;
+        private String error;
+
+        public static ItemResultDto fromResult(CreateTriageBatchUseCase.BatchItemResult result) {
+            return ItemResultDto.builder()
+                    .index(result.index())
+                    .triageId(result.triageId())
+                    .status(result.accepted() ? "ACCEPTED" : "FAILED")
+                    .error(result.error())
+                    .build();
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package br.com.fiap.fase5triagemsus.presentation.exception;
 
 
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.RedisQueueService.QueueFullException;
 import br.com.fiap.fase5triagemsus.presentation.dto.response.ApiResponseDto;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -129,6 +131,24 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    @ExceptionHandler(QueueFullException.class)
+    public ResponseEntity<ApiResponseDto<Object>> handleQueueFull(
+            QueueFullException ex,
+            HttpServletRequest request) {
+
+        log.warn("Fila cheia, triagem recusada: {} - URI: {}", ex.getMessage(), request.getRequestURI());
+
+        ApiResponseDto<Object> response = ApiResponseDto.error(
+                "Fila de triagens cheia, tente novamente em instantes",
+                HttpStatus.SERVICE_UNAVAILABLE,
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(response);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ApiResponseDto<Object>> handleRuntimeException(
             RuntimeException ex,
@@ -0,0 +1,130 @@
+package br.com.fiap.fase5triagemsus.usecases;
+
+import br.com.fiap.fase5triagemsus.domain.entities.Patient;
+import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.repositories.PatientRepository;
+import br.com.fiap.fase5triagemsus.domain.repositories.TriageRepository;
+import br.com.fiap.fase5triagemsus.domain.valueobjects.PatientId;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.BusinessProperties;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.QueueService;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.RedisQueueService.QueueFullException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ingestão em lote: uma consulta para os pacientes, INSERTs em batch JDBC e um único pipeline no Redis.
+ * Falhas são reportadas por item; um paciente inexistente não derruba o restante do lote.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CreateTriageBatchUseCase {
+
+    private final TriageRepository triageRepository;
+    private final PatientRepository patientRepository;
+    private final QueueService queueService;
+    private final BusinessProperties businessProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    public List<BatchItemResult> execute(List<BatchEntry> entries) {
+        if (entries.size() > businessProperties.getMaxTriagesPerBatch()) {
+            throw new IllegalArgumentException(String.format(
+                    "Lote excede o máximo de %d triagens", businessProperties.getMaxTriagesPerBatch()));
+        }
+
+        List<PatientId> patientIds = entries.stream()
+                .map(entry -> PatientId.of(entry.command().patientId()))
+                .distinct()
+                .toList();
+        Map<String, Patient> patients = patientRepository.findAllById(patientIds).stream()
+                .collect(Collectors.toMap(patient -> patient.getId().getValue(), Function.identity()));
+
+        List<BatchItemResult> results = new ArrayList<>(entries.size());
+        List<BatchEntry> accepted = new ArrayList<>(entries.size());
+        List<Triage> triages = new ArrayList<>(entries.size());
+
+        for (BatchEntry entry : entries) {
+            if (!patients.containsKey(entry.command().patientId())) {
+                results.add(BatchItemResult.failed(entry.index(), null,
+                        "Paciente não encontrado: " + entry.command().patientId()));
+                continue;
+            }
+            accepted.add(entry);
+            triages.add(CreateTriageUseCase.newTriage(entry.command()));
+        }
+
+        if (!triages.isEmpty()) {
+            results.addAll(persistAndEnqueue(accepted, triages, patients));
+        }
+
+        results.sort(Comparator.comparingInt(BatchItemResult::index));
+        return results;
+    }
+
+    /**
+     * INSERTs e enfileiramento na mesma transação, como no {@link CreateTriageUseCase}: se o Redis recusar o lote
+     * (fila cheia ou indisponível), as triagens não ficam gravadas como PENDING sem mensagem na fila, e o cliente
+     * pode reenviar os itens sem criar duplicatas.
+     */
+    private List<BatchItemResult> persistAndEnqueue(List<BatchEntry> entries, List<Triage> triages,
+                                                    Map<String, Patient> patients) {
+        List<Triage> savedTriages;
+        try {
+            savedTriages = transactionTemplate.execute(status -> {
+                List<Triage> saved = triageRepository.insertAll(triages);
+                queueService.sendBatch(saved.stream()
+                        .map(triage -> CreateTriageUseCase.toQueueMessage(triage,
+                                patients.get(triage.getPatientId().getValue())))
+                        .toList());
+                return saved;
+            });
+        } catch (QueueFullException e) {
+            log.warn("Lote de {} triagens recusado: {}", triages.size(), e.getMessage());
+            return failAll(entries, "Fila de triagens cheia, tente novamente em instantes");
+        } catch (Exception e) {
+            log.error("Erro ao registrar lote de {} triagens: {}", triages.size(), e.getMessage(), e);
+            return failAll(entries, "Erro ao registrar triagem");
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            results.add(BatchItemResult.accepted(entries.get(i).index(), savedTriages.get(i).getId().getValue()));
+        }
+        return results;
+    }
+
+    private static List<BatchItemResult> failAll(List<BatchEntry> entries, String error) {
+        return entries.stream()
+                .map(entry -> BatchItemResult.failed(entry.index(), null, error))
+                .toList();
+    }
+
+    public record BatchEntry(
+            int index,
+            CreateTriageUseCase.CreateTriageCommand command
+    ) {}
+
+    public record BatchItemResult(
+            int index,
+            String triageId,
+            boolean accepted,
+            String error
+    ) {
+        public static BatchItemResult accepted(int index, String triageId) {
+            return new BatchItemResult(index, triageId, true, null);
+        }
+
+        public static BatchItemResult failed(int index, String triageId, String error) {
+            return new BatchItemResult(index, triageId, false, error);
+        }
+    }
+}
@@ -2,12 +2,14 @@ package br.com.fiap.fase5triagemsus.usecases;
 
 import br.com.fiap.fase5triagemsus.domain.entities.Patient;
 import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
 import br.com.fiap.fase5triagemsus.domain.repositories.PatientRepository;
 import br.com.fiap.fase5triagemsus.domain.repositories.TriageRepository;
 import br.com.fiap.fase5triagemsus.domain.valueobjects.PatientId;
 import br.com.fiap.fase5triagemsus.domain.valueobjects.QueueMessage;
 import br.com.fiap.fase5triagemsus.domain.valueobjects.Symptom;
 import br.com.fiap.fase5triagemsus.infrastructure.config.QueueConfig;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.QueueProperties;
 import br.com.fiap.fase5triagemsus.infrastructure.services.queue.QueueService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +27,7 @@ public class CreateTriageUseCase {
     private final TriageRepository triageRepository;
     private final PatientRepository patientRepository;
     private final QueueService queueService;
+    private final QueueProperties queueProperties;
 
     @Transactional
     public Triage execute(CreateTriageCommand command) {
@@ -32,6 +35,21 @@ public class CreateTriageUseCase {
         Patient patient = patientRepository.findById(patientId)
                 .orElseThrow(() -> new PatientNotFoundException("Paciente não encontrado: " + command.patientId()));
 
+        Triage triage = newTriage(command);
+        Triage savedTriage = triageRepository.save(triage);
+
+        QueueMessage queueMessage = toQueueMessage(savedTriage, patient);
+
+        if (queueProperties.getEnablePriorityQueue()) {
+            queueService.sendToPriorityQueue(queueMessage);
+        } else {
+            queueService.sendToQueue(QueueConfig.TRIAGE_QUEUE, queueMessage);
+        }
+
+        return savedTriage;
+    }
+
+    static Triage newTriage(CreateTriageCommand command) {
         List<Symptom> symptoms = command.symptoms().stream()
                 .map(symptomDto -> Symptom.of(
                         symptomDto.description(),
@@ -40,26 +58,41 @@ public class CreateTriageUseCase {
                 ))
                 .toList();
 
-        Triage triage = Triage.create(patientId, symptoms);
-        Triage savedTriage = triageRepository.save(triage);
+        return Triage.create(PatientId.of(command.patientId()), symptoms);
+    }
 
-        QueueMessage queueMessage = QueueMessage.builder()
-                .triageId(savedTriage.getId().getValue())
-                .patientId(savedTriage.getPatientId().getValue())
-                .symptoms(symptoms.stream().map(Symptom::getDescription).toList())
+    static QueueMessage toQueueMessage(Triage triage, Patient patient) {
+        return QueueMessage.builder()
+                .triageId(triage.getId().getValue())
+                .patientId(triage.getPatientId().getValue())
+                .symptoms(triage.getSymptoms().stream().map(Symptom::getDescription).toList())
                 .patientAge(patient.getAge())
                 .createdAt(LocalDateTime.now())
-                .priority(savedTriage.isUrgent() ? 1 : 3)
+                .priority(initialPriority(triage, patient).getLevel())
                 .retryCount(0)
                 .build();
+    }
 
-        if (savedTriage.isUrgent()) {
-            queueService.sendToPriorityQueue(queueMessage);
-        } else {
-            queueService.sendToQueue(QueueConfig.TRIAGE_QUEUE, queueMessage);
+    /**
+     * Lane de entrada, antes da IA: só ordena a fila, a classificação final vem da análise. Combina as palavras
+     * de alerta de {@link Triage#isUrgent()}, as contagens de sintomas graves e moderados usadas no fallback e a
+     * faixa etária do paciente.
+     */
+    static PriorityLevel initialPriority(Triage triage, Patient patient) {
+        boolean severe = triage.hasSevereSymptoms();
+        if (triage.isUrgent() && severe) {
+            return PriorityLevel.EMERGENCY;
         }
-
-        return savedTriage;
+        if (triage.isUrgent() || (severe && (patient.isElderly() || patient.isChild()))) {
+            return PriorityLevel.VERY_URGENT;
+        }
+        if (severe || triage.countModerateSymptoms() >= 3) {
+            return PriorityLevel.URGENT;
+        }
+        if (triage.countModerateSymptoms() > 0) {
+            return PriorityLevel.LESS_URGENT;
+        }
+        return PriorityLevel.NON_URGENT;
     }
 
     public record CreateTriageCommand(
@@ -2,6 +2,7 @@ package br.com.fiap.fase5triagemsus.usecases;
 
 import br.com.fiap.fase5triagemsus.domain.entities.Patient;
 import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
 import br.com.fiap.fase5triagemsus.domain.enums.TriageStatus;
 import br.com.fiap.fase5triagemsus.domain.repositories.PatientRepository;
 import br.com.fiap.fase5triagemsus.domain.repositories.TriageRepository;
@@ -9,10 +10,16 @@ import br.com.fiap.fase5triagemsus.domain.services.AITriageService;
 import br.com.fiap.fase5triagemsus.domain.valueobjects.PatientId;
 import br.com.fiap.fase5triagemsus.domain.valueobjects.QueueMessage;
 import br.com.fiap.fase5triagemsus.domain.valueobjects.TriageId;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.provider.FallbackAnalysis;
+import br.com.fiap.fase5triagemsus.infrastructure.config.QueueConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @Slf4j
 @Service
@@ -22,43 +29,176 @@ public class ProcessTriageUseCase {
     private final TriageRepository triageRepository;
     private final PatientRepository patientRepository;
     private final AITriageService aiTriageService;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    /**
+     * A chamada à IA fica fora de transação: com centenas de análises em voo, manter uma conexão JDBC
+     * presa durante cada chamada esgotaria o pool muito antes da cota da API.
+     */
     public ProcessingResult execute(QueueMessage queueMessage) {
+        Triage triage = transactionTemplate.execute(status -> claim(queueMessage));
+        if (triage == null) {
+            return ProcessingResult.skipped("Triagem não está pendente");
+        }
+
+        try {
+            Patient patient = loadPatient(queueMessage);
+            AITriageService.TriageAnalysisResult result;
+            try {
+                result = aiTriageService.analyzeTriageSituation(triage, patient);
+            } catch (RuntimeException e) {
+                if (!isLastDelivery(queueMessage)) {
+                    throw e;
+                }
+                result = lastDeliveryFallback(triage, patient, e);
+            }
+            return complete(triage, result);
+        } catch (Exception e) {
+            return fail(triage, e);
+        }
+    }
+
+    /**
+     * Mesmo fluxo de {@link #execute}, mas só as etapas de banco (claim, paciente e gravação do resultado)
+     * ocupam uma thread de {@code blockingExecutor}; enquanto a IA responde nenhuma thread fica presa.
+     * A prioridade antecipada pela IA é gravada assim que chega, com a triagem ainda em processamento.
+     */
+    public CompletableFuture<ProcessingResult> executeAsync(QueueMessage queueMessage, Executor blockingExecutor) {
+        return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> claim(queueMessage)), blockingExecutor)
+                .thenCompose(triage -> {
+                    if (triage == null) {
+                        return CompletableFuture.completedFuture(ProcessingResult.skipped("Triagem não está pendente"));
+                    }
+                    ProvisionalPriority provisional = new ProvisionalPriority(triage, blockingExecutor);
+                    CompletableFuture<AITriageService.TriageAnalysisResult> analysis =
+                            CompletableFuture.supplyAsync(() -> loadPatient(queueMessage), blockingExecutor)
+                                    .thenCompose(patient -> aiTriageService.analyzeTriageSituationAsync(
+                                                    triage, patient, provisional::publish)
+                                            .exceptionally(error -> {
+                                                if (!isLastDelivery(queueMessage)) {
+                                                    throw error instanceof CompletionException completion
+                                                            ? completion : new CompletionException(error);
+                                                }
+                                                return lastDeliveryFallback(triage, patient, unwrap(error));
+                                            }));
+                    // O resultado final só é gravado depois da prioridade antecipada, para não ser sobrescrito
+                    return analysis.handle((result, error) -> null)
+                            .thenCompose(ignored -> provisional.written())
+                            .thenCompose(ignored -> analysis)
+                            .thenApplyAsync(result -> complete(triage, result), blockingExecutor)
+                            .exceptionallyAsync(error -> fail(provisional.current(), unwrap(error)), blockingExecutor);
+                });
+    }
+
+    private Patient loadPatient(QueueMessage queueMessage) {
+        PatientId patientId = PatientId.of(queueMessage.getPatientId());
+        return patientRepository.findById(patientId)
+                .orElseThrow(() -> new PatientNotFoundException("Paciente não encontrado: " + patientId.getValue()));
+    }
+
+    // Na última entrega uma falha levaria a triagem à DLQ sem prioridade nenhuma
+    private static boolean isLastDelivery(QueueMessage queueMessage) {
+        return !queueMessage.canRetry(QueueConfig.DEFAULT_MAX_RETRIES);
+    }
+
+    /**
+     * Cota esgotada, limite de concorrência cheio ou outra falha da IA na última tentativa: o paciente sai com
+     * a classificação conservadora por sintomas, como quando a própria IA falha.
+     */
+    private static AITriageService.TriageAnalysisResult lastDeliveryFallback(Triage triage, Patient patient,
+                                                                             Throwable error) {
+        log.warn("Análise da triagem {} falhou na última tentativa, aplicando fallback: {}",
+                triage.getId().getValue(), error.getMessage());
+        return FallbackAnalysis.of(triage, patient, error);
+    }
+
+    private ProcessingResult complete(Triage triage, AITriageService.TriageAnalysisResult result) {
+        Triage completed = triage.withCompletedResult(
+                result.recommendation(),
+                result.priority(),
+                result.confidenceScore(),
+                result.reasoning()
+        );
+
+        transactionTemplate.executeWithoutResult(status -> triageRepository.save(completed));
+        return ProcessingResult.success(completed);
+    }
+
+    private ProcessingResult fail(Triage triage, Throwable error) {
+        Triage failed = triage.withError("Erro no processamento: " + error.getMessage());
+        transactionTemplate.executeWithoutResult(status -> triageRepository.save(failed));
+
+        return ProcessingResult.failed(error.getMessage(), failed);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private Triage claim(QueueMessage queueMessage) {
         TriageId triageId = TriageId.of(queueMessage.getTriageId());
 
         Triage triage = triageRepository.findById(triageId)
                 .orElseThrow(() -> new TriageNotFoundException("Triagem não encontrada: " + triageId.getValue()));
 
-        if (!triage.getStatus().equals(TriageStatus.PENDING)) {
-            return ProcessingResult.skipped("Triagem não está pendente");
+        if (!isProcessable(triage, queueMessage)) {
+            return null;
+        }
+
+        if (queueMessage.getRetryCount() > 0 && triage.getStatus() != TriageStatus.PENDING) {
+            triage = triage.withIncrementedRetry();
         }
 
         triage = triage.withStatus(TriageStatus.PROCESSING);
         triageRepository.save(triage);
+        return triage;
+    }
 
-        try {
-            PatientId patientId = PatientId.of(queueMessage.getPatientId());
-            Patient patient = patientRepository.findById(patientId)
-                    .orElseThrow(() -> new PatientNotFoundException("Paciente não encontrado: " + patientId.getValue()));
+    private boolean isProcessable(Triage triage, QueueMessage queueMessage) {
+        if (triage.getStatus() == TriageStatus.PENDING) {
+            return true;
+        }
 
-            AITriageService.TriageAnalysisResult result = aiTriageService.analyzeTriageSituation(triage, patient);
+        return queueMessage.getRetryCount() > 0
+                && (triage.getStatus() == TriageStatus.FAILED || triage.getStatus() == TriageStatus.RETRYING);
+    }
 
-            triage = triage.withCompletedResult(
-                    result.recommendation(),
-                    result.priority(),
-                    result.confidenceScore(),
-                    result.reasoning()
-            );
+    /**
+     * Prioridade recebida da IA antes da análise completa. A gravação sai na hora, numa thread de banco;
+     * uma falha nela só é registrada, o resultado completo grava a prioridade de qualquer forma.
+     */
+    private final class ProvisionalPriority {
 
-            triageRepository.save(triage);
-            return ProcessingResult.success(triage);
+        private final Triage triage;
+        private final Executor blockingExecutor;
+        private volatile Triage provisional;
+        private volatile CompletableFuture<Void> written = CompletableFuture.completedFuture(null);
 
-        } catch (Exception e) {
-            triage = triage.withError("Erro no processamento: " + e.getMessage());
-            triageRepository.save(triage);
+        ProvisionalPriority(Triage triage, Executor blockingExecutor) {
+            this.triage = triage;
+            this.blockingExecutor = blockingExecutor;
+        }
+
+        void publish(PriorityLevel priority) {
+            Triage updated = triage.withProvisionalPriority(priority);
+            provisional = updated;
+            written = CompletableFuture
+                    .runAsync(() -> transactionTemplate.executeWithoutResult(status -> triageRepository.save(updated)),
+                            blockingExecutor)
+                    .exceptionally(error -> {
+                        log.warn("Erro ao gravar prioridade antecipada da triagem {}: {}",
+                                triage.getId().getValue(), unwrap(error).getMessage());
+                        return null;
+                    });
+            log.debug("Prioridade antecipada da triagem {}: {}", triage.getId().getValue(), priority);
+        }
+
+        CompletableFuture<Void> written() {
+            return written;
+        }
 
-            return ProcessingResult.failed(e.getMessage());
+        Triage current() {
+            return provisional != null ? provisional : triage;
         }
     }
 
@@ -75,6 +215,10 @@ public class ProcessTriageUseCase {
             return new ProcessingResult(ProcessingStatus.FAILED, message, null);
         }
 
+        public static ProcessingResult failed(String message, Triage triage) {
+            return new ProcessingResult(ProcessingStatus.FAILED, message, triage);
+        }
+
         public static ProcessingResult skipped(String message) {
             return new ProcessingResult(ProcessingStatus.SKIPPED, message, null);
         }
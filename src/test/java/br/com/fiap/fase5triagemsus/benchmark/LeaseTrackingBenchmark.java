@@ -0,0 +1,133 @@
+package br.com.fiap.fase5triagemsus.benchmark;
+
+import br.com.fiap.fase5triagemsus.domain.valueobjects.QueueMessage;
+import br.com.fiap.fase5triagemsus.infrastructure.config.QueueConfig;
+import br.com.fiap.fase5triagemsus.infrastructure.config.RedisConfig;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.QueueProperties;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.BlockingRedisConnections;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.QueueStatsStore;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.RedisQueueService;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.codec.JsonQueueMessageCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o custo de adquirir e liberar um lease de processamento com N mensagens já em voo.
+ * Com o rastreamento por hash + ZSET o custo deve ficar estável independente de N.
+ *
+ * Requer um Redis acessível (-Dredis.host, -Dredis.port, -Dredis.password); as chaves de
+ * processamento são apagadas no setup, portanto não use contra um ambiente compartilhado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeaseTrackingBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    private int inFlight;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate stringRedisTemplate;
+    private RedisQueueService queueService;
+    private QueueMessage message;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RedisStandaloneConfiguration standalone = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"),
+                Integer.getInteger("redis.port", 6379));
+        standalone.setPassword(RedisPassword.of(System.getProperty("redis.password", "redis123")));
+
+        connectionFactory = new LettuceConnectionFactory(standalone);
+        connectionFactory.afterPropertiesSet();
+
+        RedisConfig redisConfig = new RedisConfig();
+        RedisTemplate<String, Object> redisTemplate = redisConfig.redisTemplate(connectionFactory);
+        stringRedisTemplate = redisConfig.stringRedisTemplate(connectionFactory);
+        QueueProperties queueProperties = new QueueProperties();
+        queueService = new RedisQueueService(redisTemplate, stringRedisTemplate, redisConfig.redisObjectMapper(),
+                new JsonQueueMessageCodec(redisConfig.redisObjectMapper()), queueProperties, new BlockingRedisConnections(connectionFactory, queueProperties),
+                new QueueStatsStore(stringRedisTemplate));
+
+        clearLeases();
+        seedLeases();
+
+        message = new QueueMessage(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+                List.of("febre"), 40, 70.0, 1.75, List.of(), LocalDateTime.now(), 3, 0, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clearLeases();
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public void acquireAndRelease() {
+        queueService.markAsProcessing(message);
+        queueService.ackMessage(QueueConfig.TRIAGE_QUEUE, message);
+    }
+
+    @Benchmark
+    public long processingCount() {
+        return queueService.getProcessingCount();
+    }
+
+    private void seedLeases() {
+        long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        Map<String, String> leases = new HashMap<>(inFlight);
+        Set<ZSetOperations.TypedTuple<String>> expiries = new HashSet<>(inFlight);
+
+        for (int i = 0; i < inFlight; i++) {
+            String triageId = UUID.randomUUID().toString();
+            leases.put(triageId, String.valueOf(System.currentTimeMillis()));
+            expiries.add(new DefaultTypedTuple<>(triageId, (double) expiresAt));
+        }
+
+        stringRedisTemplate.opsForHash().putAll(QueueConfig.PROCESSING_LEASES, leases);
+        stringRedisTemplate.opsForZSet().add(QueueConfig.PROCESSING_EXPIRY, expiries);
+    }
+
+    private void clearLeases() {
+        stringRedisTemplate.delete(List.of(QueueConfig.PROCESSING_LEASES, QueueConfig.PROCESSING_EXPIRY));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LeaseTrackingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
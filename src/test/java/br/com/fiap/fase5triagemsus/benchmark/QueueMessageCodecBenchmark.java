@@ -0,0 +1,113 @@
+package br.com.fiap.fase5triagemsus.benchmark;
+
+import br.com.fiap.fase5triagemsus.domain.valueobjects.QueueMessage;
+import br.com.fiap.fase5triagemsus.infrastructure.config.RedisConfig;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.codec.BinaryQueueMessageCodec;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.codec.JsonQueueMessageCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o custo de codificar/decodificar uma {@link QueueMessage} típica em JSON e no formato binário.
+ * O caminho {@code legacyList*} reproduz o que o backend de listas fazia antes do codec: JSON embrulhado
+ * pelo serializer do RedisTemplate e, na leitura, desembrulhado e lido de novo. O tamanho em bytes de cada
+ * formato é impresso antes da execução. Não depende de Redis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueueMessageCodecBenchmark {
+
+    private JsonQueueMessageCodec jsonCodec;
+    private BinaryQueueMessageCodec binaryCodec;
+    private GenericJackson2JsonRedisSerializer listSerializer;
+    private QueueMessage message;
+    private String jsonPayload;
+    private String binaryPayload;
+    private byte[] legacyListPayload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = new RedisConfig().redisObjectMapper();
+        jsonCodec = new JsonQueueMessageCodec(objectMapper);
+        binaryCodec = new BinaryQueueMessageCodec(objectMapper);
+        listSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+
+        message = sampleMessage();
+        jsonPayload = jsonCodec.encode(message);
+        binaryPayload = binaryCodec.encode(message);
+        legacyListPayload = listSerializer.serialize(jsonPayload);
+    }
+
+    @Benchmark
+    public String jsonEncode() {
+        return jsonCodec.encode(message);
+    }
+
+    @Benchmark
+    public QueueMessage jsonDecode() {
+        return jsonCodec.decode(jsonPayload);
+    }
+
+    @Benchmark
+    public String binaryEncode() {
+        return binaryCodec.encode(message);
+    }
+
+    @Benchmark
+    public QueueMessage binaryDecode() {
+        return binaryCodec.decode(binaryPayload);
+    }
+
+    @Benchmark
+    public byte[] legacyListEncode() {
+        return listSerializer.serialize(jsonCodec.encode(message));
+    }
+
+    @Benchmark
+    public QueueMessage legacyListDecode() {
+        return jsonCodec.decode((String) listSerializer.deserialize(legacyListPayload));
+    }
+
+    static QueueMessage sampleMessage() {
+        return new QueueMessage(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+                List.of("dor no peito", "falta de ar", "sudorese"), 58, 82.5, 1.72,
+                List.of("hipertensão", "diabetes tipo 2"), LocalDateTime.now(), 2, 1, LocalDateTime.now());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        QueueMessageCodecBenchmark sizes = new QueueMessageCodecBenchmark();
+        sizes.setUp();
+        System.out.printf("Bytes por mensagem: json=%d, binary=%d, legacy list=%d%n",
+                sizes.jsonPayload.getBytes(StandardCharsets.UTF_8).length,
+                sizes.binaryPayload.getBytes(StandardCharsets.UTF_8).length,
+                sizes.legacyListPayload.length);
+
+        new Runner(new OptionsBuilder()
+                .include(QueueMessageCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
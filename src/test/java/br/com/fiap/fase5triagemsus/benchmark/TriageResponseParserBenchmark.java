@@ -0,0 +1,84 @@
+package br.com.fiap.fase5triagemsus.benchmark;
+
+import br.com.fiap.fase5triagemsus.infrastructure.ai.parsing.TriageResponseParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a leitura da resposta do Gemini pelo {@link TriageResponseParser} com o caminho anterior:
+ * recorte com {@code indexOf}/{@code lastIndexOf}/{@code substring} e {@code readTree} da árvore inteira.
+ * O texto de exemplo vem numa cerca de markdown, como o modelo costuma responder. O {@code main} roda com o
+ * profiler de GC, que mostra a alocação por operação em {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TriageResponseParserBenchmark {
+
+    private ObjectMapper objectMapper;
+    private String responseText;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        responseText = sampleResponse();
+    }
+
+    @Benchmark
+    public void legacyTree(Blackhole blackhole) throws IOException {
+        int startIndex = responseText.indexOf('{');
+        int endIndex = responseText.lastIndexOf('}');
+        JsonNode node = objectMapper.readTree(responseText.substring(startIndex, endIndex + 1));
+        blackhole.consume(node.get("priority").asText());
+        blackhole.consume(node.get("recommendation").asText());
+        blackhole.consume(node.get("reasoning").asText());
+        blackhole.consume(node.get("confidence").asDouble());
+    }
+
+    @Benchmark
+    public TriageResponseParser.Fields streaming() throws IOException {
+        return TriageResponseParser.parseObject(responseText);
+    }
+
+    static String sampleResponse() {
+        return """
+                ```json
+                {
+                  "priority": "URGENT",
+                  "recommendation": "Encaminhar para avaliação médica em até 30 minutos, com monitorização de sinais vitais e eletrocardiograma.",
+                  "reasoning": "Paciente de 58 anos, hipertenso e diabético, com dor no peito, falta de ar e sudorese. O quadro sugere síndrome coronariana aguda e exige avaliação rápida, embora sem sinais de instabilidade hemodinâmica relatados.",
+                  "confidence": 0.87
+                }
+                ```
+                """;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TriageResponseParserBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.cache;
+
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.domain.services.AITriageService.TriageAnalysisResult;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiCacheProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AnalysisCoalescerTest {
+
+    private static final TriageAnalysisResult RESULT = new TriageAnalysisResult(
+            PriorityLevel.URGENT, "Avaliação médica em até 60 minutos", "Dor moderada", 0.8);
+
+    private final StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+
+    @Test
+    void withoutListenerContainerCoalescesOnlyWithinTheNode() {
+        AnalysisCoalescer coalescer = coalescer(null);
+        CompletableFuture<TriageAnalysisResult> load = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<TriageAnalysisResult> first = coalescer.execute("fp", () -> {
+            calls.incrementAndGet();
+            return load;
+        });
+        CompletableFuture<TriageAnalysisResult> second = coalescer.execute("fp", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(RESULT);
+        });
+        load.complete(RESULT);
+
+        assertThat(calls).hasValue(1);
+        assertThat(first).isCompletedWithValue(RESULT);
+        assertThat(second).isCompletedWithValue(RESULT);
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    void unreachableRedisFallsBackToLocalSingleFlight() {
+        RedisMessageListenerContainer container = mock(RedisMessageListenerContainer.class);
+        doThrow(new RedisConnectionFailureException("Unable to connect to Redis")).when(container).start();
+        AnalysisCoalescer coalescer = coalescer(container);
+
+        CompletableFuture<TriageAnalysisResult> first =
+                coalescer.execute("fp-1", () -> CompletableFuture.completedFuture(RESULT));
+        CompletableFuture<TriageAnalysisResult> second =
+                coalescer.execute("fp-2", () -> CompletableFuture.completedFuture(RESULT));
+
+        assertThat(first).isCompletedWithValue(RESULT);
+        assertThat(second).isCompletedWithValue(RESULT);
+        // A segunda chamada não espera outra tentativa de inscrição
+        verify(container, times(1)).start();
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    void subscribesOnFirstUseAndCoordinatesAcrossNodes() {
+        RedisMessageListenerContainer container = mock(RedisMessageListenerContainer.class);
+        when(container.isListening()).thenReturn(false, true);
+        AnalysisCoalescer coalescer = coalescer(container);
+
+        coalescer.execute("fp", CompletableFuture::new);
+
+        verify(container).start();
+        verify(stringRedisTemplate).opsForValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private AnalysisCoalescer coalescer(RedisMessageListenerContainer container) {
+        ObjectProvider<RedisMessageListenerContainer> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(container);
+        AnalysisCoalescer coalescer = new AnalysisCoalescer(stringRedisTemplate, mock(ReactiveStringRedisTemplate.class),
+                provider, new ObjectMapper(), new AiCacheProperties(), mock(TriageAnalysisCache.class),
+                new SimpleMeterRegistry());
+        coalescer.subscribe();
+        return coalescer;
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.concurrency;
+
+import br.com.fiap.fase5triagemsus.infrastructure.ai.concurrency.AdaptiveConcurrencyLimiter.Permit;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiConcurrencyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AdaptiveConcurrencyLimiter limiter = limiterWithSingleSlot();
+
+    @Test
+    void asyncWaiterReceivesReleasedPermit() {
+        Permit held = limiter.acquire();
+        CompletableFuture<Permit> waiting = limiter.acquireAsync();
+
+        assertThat(waiting).isNotDone();
+        held.release();
+
+        assertThat(waiting).isCompleted();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        waiting.join().release();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void cancelledWaiterDoesNotKeepThePermit() {
+        Permit held = limiter.acquire();
+        CompletableFuture<Permit> cancelled = limiter.acquireAsync();
+
+        cancelled.cancel(false);
+        held.release();
+
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void cancelledWaiterLeavesTheSlotToTheNextOne() {
+        Permit held = limiter.acquire();
+        CompletableFuture<Permit> cancelled = limiter.acquireAsync();
+        CompletableFuture<Permit> next = limiter.acquireAsync();
+
+        cancelled.cancel(false);
+        held.release();
+
+        assertThat(next).isCompleted();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+
+    private static AdaptiveConcurrencyLimiter limiterWithSingleSlot() {
+        AiConcurrencyProperties properties = new AiConcurrencyProperties();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        return new AdaptiveConcurrencyLimiter(properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryAfterTest {
+
+    @Test
+    void readsSecondsFromHeader() {
+        assertThat(RetryAfter.of(tooManyRequests("17", ""))).contains(Duration.ofSeconds(17));
+    }
+
+    @Test
+    void readsFutureHttpDateFromHeader() {
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(2));
+
+        assertThat(RetryAfter.of(tooManyRequests(date, ""))).hasValueSatisfying(delay ->
+                assertThat(delay).isPositive().isLessThanOrEqualTo(Duration.ofMinutes(2)));
+    }
+
+    @Test
+    void pastHttpDateIsIgnored() {
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(1));
+
+        assertThat(RetryAfter.of(tooManyRequests(date, ""))).isEmpty();
+    }
+
+    @Test
+    void zeroDelayIsIgnored() {
+        assertThat(RetryAfter.of(tooManyRequests("0", ""))).isEmpty();
+        assertThat(RetryAfter.of(tooManyRequests(null, "{\"retryDelay\": \"0s\"}"))).isEmpty();
+    }
+
+    @Test
+    void fallsBackToRetryDelayInBody() {
+        String body = """
+                {"error": {"code": 429, "details": [{"retryDelay": "2.5s"}]}}""";
+
+        assertThat(RetryAfter.of(tooManyRequests(null, body))).contains(Duration.ofMillis(2500));
+    }
+
+    private static WebClientResponseException tooManyRequests(String retryAfter, String body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (retryAfter != null) {
+            headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+        return WebClientResponseException.create(429, "Too Many Requests", headers,
+                body.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+}
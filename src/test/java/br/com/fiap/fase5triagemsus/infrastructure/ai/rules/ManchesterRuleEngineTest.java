@@ -0,0 +1,139 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.rules;
+
+import br.com.fiap.fase5triagemsus.domain.entities.Patient;
+import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.domain.services.AITriageService.TriageAnalysisResult;
+import br.com.fiap.fase5triagemsus.domain.valueobjects.Symptom;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.AiRulesProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ManchesterRuleEngineTest {
+
+    private static final int ADULT = 40;
+    private static final int ELDERLY = 75;
+    private static final int CHILD = 6;
+
+    private ManchesterRuleEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new ManchesterRuleEngine(new AiRulesProperties(), new DefaultResourceLoader(), new ObjectMapper(),
+                new SimpleMeterRegistry());
+        engine.load();
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "inconsciencia                | Paciente encontrado desacordado    | 5  | 40 | EMERGENCY",
+            "parada-cardiorrespiratoria   | Parada cardíaca na recepção        | 10 | 40 | EMERGENCY",
+            "hemorragia-grave             | Sangramento intenso na perna       | 9  | 40 | EMERGENCY",
+            "dor-toracica-intensa         | Dor no peito irradiando para braço | 9  | 40 | EMERGENCY",
+            "dor-toracica-intensa-local   | Dor forte e aperto no tórax        | 8  | 40 | EMERGENCY",
+            "convulsao                    | Teve uma crise convulsiva          | 6  | 40 | EMERGENCY",
+            "insuficiencia-respiratoria   | Falta de ar em repouso             | 10 | 40 | EMERGENCY",
+            "sinais-de-avc                | Boca torta e fala enrolada         | 6  | 40 | EMERGENCY",
+            "queimadura-grave             | Queimadura no braço com óleo       | 8  | 40 | VERY_URGENT",
+            "dificuldade-respiratoria     | Dificuldade para respirar          | 7  | 40 | VERY_URGENT",
+            "dor-toracica-idoso           | Aperto no peito ao caminhar        | 5  | 75 | VERY_URGENT",
+            "febre-alta-crianca           | Febre desde ontem                  | 9  | 6  | VERY_URGENT"
+    })
+    void everyShippedRuleClassifiesItsCase(String rule, String description, int intensity, int age,
+                                           PriorityLevel expected) {
+        Optional<TriageAnalysisResult> result = classify(age, Symptom.of(description, intensity));
+
+        assertThat(result).hasValueSatisfying(analysis -> {
+            assertThat(analysis.priority()).isEqualTo(expected);
+            assertThat(analysis.reasoning()).contains("'" + rule + "'");
+        });
+    }
+
+    @Test
+    void locationRuleAcceptsLocationField() {
+        assertThat(classify(ADULT, Symptom.of("Dor muito forte", 9, "Peito")))
+                .hasValueSatisfying(analysis -> assertThat(analysis.reasoning()).contains("dor-toracica-intensa-local"));
+    }
+
+    @Test
+    void rulesBelowMinimumIntensityOrOutsideAgeGroupGoToAi() {
+        assertThat(classify(ADULT, Symptom.of("Sangramento intenso na perna", 5))).isEmpty();
+        assertThat(classify(ADULT, Symptom.of("Aperto no peito ao caminhar", 5))).isEmpty();
+        assertThat(classify(ADULT, Symptom.of("Febre desde ontem", 9))).isEmpty();
+        assertThat(classify(ELDERLY, Symptom.of("Febre desde ontem", 9))).isEmpty();
+    }
+
+    @Test
+    void wholeWordsOnly() {
+        assertThat(classify(ADULT, Symptom.of("Dormência no peito", 9))).isEmpty();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Sem dor no peito",
+            "Não tem dor no peito",
+            "Nega ter convulsão",
+            "Paciente negou qualquer convulsão",
+            "Nunca teve perda de consciência",
+            "Não sente mais falta de ar"
+    })
+    void negatedTermsDoNotFire(String description) {
+        assertThat(classify(ADULT, Symptom.of(description, 10))).isEmpty();
+    }
+
+    @Test
+    void negationDoesNotCrossClauses() {
+        assertThat(classify(ADULT, Symptom.of("Nega febre, mas está desacordado", 5)))
+                .hasValueSatisfying(analysis -> assertThat(analysis.priority()).isEqualTo(PriorityLevel.EMERGENCY));
+    }
+
+    @Test
+    void negationFarBeforeTheTermDoesNotFire() {
+        assertThat(classify(ADULT, Symptom.of("Não comeu hoje e agora teve convulsão", 5))).isPresent();
+    }
+
+    @Test
+    void locationMustBeInTheSameClauseAsKeyword() {
+        assertThat(classify(ADULT, Symptom.of("Dor de cabeça forte, nega dor no peito", 9))).isEmpty();
+        assertThat(classify(ADULT, Symptom.of("Dor de cabeça forte, sem alteração no peito", 9))).isEmpty();
+        assertThat(classify(ADULT, Symptom.of("Dor de cabeça forte mas peito tranquilo", 9))).isEmpty();
+    }
+
+    @Test
+    void mostSevereRuleWinsAmongSymptoms() {
+        Optional<TriageAnalysisResult> result = classify(CHILD,
+                Symptom.of("Febre alta", 9), Symptom.of("Teve convulsão em casa", 6));
+
+        assertThat(result).hasValueSatisfying(analysis -> assertThat(analysis.priority())
+                .isEqualTo(PriorityLevel.EMERGENCY));
+    }
+
+    @Test
+    void disabledEngineNeverClassifies() {
+        AiRulesProperties properties = new AiRulesProperties();
+        properties.setEnabled(false);
+        engine = new ManchesterRuleEngine(properties, new DefaultResourceLoader(), new ObjectMapper(),
+                new SimpleMeterRegistry());
+        engine.load();
+
+        assertThat(classify(ADULT, Symptom.of("Paciente desacordado", 5))).isEmpty();
+    }
+
+    private Optional<TriageAnalysisResult> classify(int age, Symptom... symptoms) {
+        Patient patient = Patient.create("Maria Silva", "52998224725", LocalDate.now().minusYears(age).minusDays(1),
+                "F", "11999999999", "maria@example.com");
+        return engine.classify(Triage.create(patient.getId(), List.of(symptoms)), patient);
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.fiap.fase5triagemsus.infrastructure.ai.streaming;
+
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriorityStreamScannerTest {
+
+    private static final String RESPONSE = """
+            {"reasoning": "Dor torácica com sudorese", "priority": "VERY_URGENT", "confidence": 0.9}""";
+
+    @Test
+    void readsPriorityFromSingleChunk() {
+        assertThat(new PriorityStreamScanner().accept(RESPONSE)).contains(PriorityLevel.VERY_URGENT);
+    }
+
+    @Test
+    void readsPriorityWhateverTheSplitPoint() {
+        for (int split = 1; split < RESPONSE.length(); split++) {
+            List<PriorityLevel> found = scan(RESPONSE.substring(0, split), RESPONSE.substring(split));
+
+            assertThat(found).as("corte na posição %d", split).containsExactly(PriorityLevel.VERY_URGENT);
+        }
+    }
+
+    @Test
+    void readsPriorityStreamedOneCharacterAtATime() {
+        assertThat(scan(RESPONSE.split(""))).containsExactly(PriorityLevel.VERY_URGENT);
+    }
+
+    @Test
+    void keySplitAcrossChunks() {
+        assertThat(scan("{\"pri", "ority\": \"EMERGENCY\"}")).containsExactly(PriorityLevel.EMERGENCY);
+        assertThat(scan("{\"priority", "\": \"EMERGENCY\"}")).containsExactly(PriorityLevel.EMERGENCY);
+        assertThat(scan("{\"", "priority\"", ": \"EMERGENCY\"}")).containsExactly(PriorityLevel.EMERGENCY);
+    }
+
+    @Test
+    void valueSplitAcrossChunksIsOnlyReadWhenClosed() {
+        PriorityStreamScanner scanner = new PriorityStreamScanner();
+
+        assertThat(scanner.accept("{\"priority\": \"LESS_")).isEmpty();
+        assertThat(scanner.accept("URG")).isEmpty();
+        assertThat(scanner.accept("ENT\", \"confidence\": 0.8}")).contains(PriorityLevel.LESS_URGENT);
+    }
+
+    @Test
+    void whitespaceAndLineBreaksAroundColonAndValue() {
+        assertThat(scan("{\n  \"priority\"", " \n\t", ":", "\n   ", "\"URGENT\"\n}"))
+                .containsExactly(PriorityLevel.URGENT);
+        assertThat(scan("{\"priority\" :   \" NON_URGENT \"}")).containsExactly(PriorityLevel.NON_URGENT);
+    }
+
+    @Test
+    void unknownValueStopsScanningWithoutPriority() {
+        PriorityStreamScanner scanner = new PriorityStreamScanner();
+
+        assertThat(scanner.accept("{\"priority\": \"CRITICAL\"")).isEmpty();
+        assertThat(scanner.accept(", \"priority\": \"EMERGENCY\"}")).isEmpty();
+    }
+
+    @Test
+    void unknownValueSplitAcrossChunks() {
+        assertThat(scan("{\"priority\": \"EMERG", "ENCIA\", \"confidence\": 0.5}")).isEmpty();
+    }
+
+    @Test
+    void keyNotFollowedByStringValueIsSkipped() {
+        assertThat(scan("{\"priority\": 1, \"reasoning\": \"x\",", " \"priority\": \"URGENT\"}"))
+                .containsExactly(PriorityLevel.URGENT);
+    }
+
+    @Test
+    void priorityIsReturnedOnlyOnce() {
+        PriorityStreamScanner scanner = new PriorityStreamScanner();
+
+        assertThat(scanner.accept("{\"priority\": \"EMERGENCY\"")).contains(PriorityLevel.EMERGENCY);
+        assertThat(scanner.accept(", \"priority\": \"URGENT\"}")).isEmpty();
+    }
+
+    @Test
+    void ignoresNullAndEmptyChunks() {
+        PriorityStreamScanner scanner = new PriorityStreamScanner();
+
+        assertThat(scanner.accept(null)).isEmpty();
+        assertThat(scanner.accept("")).isEmpty();
+        assertThat(scanner.accept("{\"priority\": \"URGENT\"}")).contains(PriorityLevel.URGENT);
+    }
+
+    @Test
+    void responseWithoutPriority() {
+        assertThat(scan("{\"reasoning\": \"sem ", "campo de\", ", "\"confidence\": 0.4}")).isEmpty();
+    }
+
+    private static List<PriorityLevel> scan(String... chunks) {
+        PriorityStreamScanner scanner = new PriorityStreamScanner();
+        List<PriorityLevel> found = new ArrayList<>();
+        for (String chunk : chunks) {
+            Optional<PriorityLevel> priority = scanner.accept(chunk);
+            priority.ifPresent(found::add);
+        }
+        return found;
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.fiap.fase5triagemsus.infrastructure.services.queue;
+
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.domain.valueobjects.QueueMessage;
+import br.com.fiap.fase5triagemsus.infrastructure.config.QueueConfig;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.QueueProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WeightedLaneDispatcherTest {
+
+    private static final List<String> LANES = List.of(
+            "emergency", "very_urgent", "urgent", "less_urgent", "non_urgent", "regular", "retry");
+
+    private QueueProperties properties;
+    private QueueService queueService;
+    private Map<String, Integer> backlog;
+
+    @BeforeEach
+    void setUp() {
+        properties = new QueueProperties();
+        queueService = mock(QueueService.class);
+        backlog = new HashMap<>();
+        LANES.forEach(lane -> backlog.put(lane, Integer.MAX_VALUE));
+
+        when(queueService.receiveFromPriorityLane(any(PriorityLevel.class), anyInt())).thenAnswer(invocation ->
+                take(invocation.<PriorityLevel>getArgument(0).name().toLowerCase(), invocation.getArgument(1)));
+        when(queueService.receiveMultipleFromQueue(eq(QueueConfig.TRIAGE_QUEUE), anyInt())).thenAnswer(invocation ->
+                take("regular", invocation.getArgument(1)));
+        when(queueService.receiveMultipleFromQueue(eq(QueueConfig.TRIAGE_RETRY_QUEUE), anyInt())).thenAnswer(invocation ->
+                take("retry", invocation.getArgument(1)));
+    }
+
+    @Test
+    void splitsSlotsInProportionToWeightsWhenEveryLaneHasBacklog() {
+        WeightedLaneDispatcher dispatcher = new WeightedLaneDispatcher(queueService, properties);
+        int totalWeight = properties.getLaneWeights().values().stream().mapToInt(Integer::intValue).sum();
+
+        // 10 ciclos completos de round-robin, em lotes que não coincidem com o ciclo
+        Map<String, Integer> served = new HashMap<>();
+        for (int batch = 0; batch < totalWeight; batch++) {
+            count(dispatcher.nextBatch(10), served);
+        }
+
+        LANES.forEach(lane -> assertThat(served.get(lane))
+                .as("lane %s", lane)
+                .isEqualTo(properties.getLaneWeights().get(lane) * 10));
+    }
+
+    @Test
+    void servesEveryLaneWithinOneRoundRobinCycle() {
+        WeightedLaneDispatcher dispatcher = new WeightedLaneDispatcher(queueService, properties);
+        int totalWeight = properties.getLaneWeights().values().stream().mapToInt(Integer::intValue).sum();
+
+        Map<String, Integer> served = new HashMap<>();
+        count(dispatcher.nextBatch(totalWeight), served);
+
+        assertThat(served.keySet()).containsExactlyInAnyOrderElementsOf(LANES);
+    }
+
+    @Test
+    void lowestWeightLanesAreNotStarvedBySmallBatches() {
+        WeightedLaneDispatcher dispatcher = new WeightedLaneDispatcher(queueService, properties);
+
+        Map<String, Integer> served = new HashMap<>();
+        for (int batch = 0; batch < 7; batch++) {
+            count(dispatcher.nextBatch(10), served);
+        }
+
+        assertThat(served).containsKeys("non_urgent", "retry", "less_urgent", "regular");
+    }
+
+    @Test
+    void givesSlotsOfEmptyLanesToTheOthers() {
+        backlog.put("emergency", 0);
+        backlog.put("very_urgent", 3);
+        WeightedLaneDispatcher dispatcher = new WeightedLaneDispatcher(queueService, properties);
+
+        Map<String, Integer> served = new HashMap<>();
+        List<QueueMessage> batch = dispatcher.nextBatch(40);
+        count(batch, served);
+
+        assertThat(batch).hasSize(40);
+        assertThat(served).doesNotContainKey("emergency");
+        assertThat(served.get("very_urgent")).isEqualTo(3);
+    }
+
+    @Test
+    void returnsPartialBatchWhenBacklogRunsOut() {
+        LANES.forEach(lane -> backlog.put(lane, 1));
+        WeightedLaneDispatcher dispatcher = new WeightedLaneDispatcher(queueService, properties);
+
+        assertThat(dispatcher.nextBatch(20)).hasSize(LANES.size());
+        assertThat(dispatcher.nextBatch(20)).isEmpty();
+    }
+
+    @Test
+    void laneWithZeroWeightIsNeverRead() {
+        properties.getLaneWeights().put("retry", 0);
+        WeightedLaneDispatcher dispatcher = new WeightedLaneDispatcher(queueService, properties);
+
+        Map<String, Integer> served = new HashMap<>();
+        for (int batch = 0; batch < 20; batch++) {
+            count(dispatcher.nextBatch(10), served);
+        }
+
+        assertThat(served).doesNotContainKey("retry").containsKey("non_urgent");
+    }
+
+    private List<QueueMessage> take(String lane, int count) {
+        int available = backlog.get(lane);
+        int taken = Math.min(available, count);
+        if (available != Integer.MAX_VALUE) {
+            backlog.put(lane, available - taken);
+        }
+        List<QueueMessage> messages = new ArrayList<>(taken);
+        for (int i = 0; i < taken; i++) {
+            messages.add(QueueMessage.builder()
+                    .triageId(lane)
+                    .patientId("patient")
+                    .symptoms(List.of("tosse"))
+                    .patientAge(30)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        return messages;
+    }
+
+    private static void count(List<QueueMessage> batch, Map<String, Integer> served) {
+        batch.forEach(message -> served.merge(message.getTriageId(), 1, Integer::sum));
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.fiap.fase5triagemsus.infrastructure.services.queue.codec;
+
+import br.com.fiap.fase5triagemsus.domain.valueobjects.QueueMessage;
+import br.com.fiap.fase5triagemsus.infrastructure.config.RedisConfig;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.codec.QueueMessageCodec.CodecException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryQueueMessageCodecTest {
+
+    private final ObjectMapper objectMapper = new RedisConfig().redisObjectMapper();
+    private final BinaryQueueMessageCodec codec = new BinaryQueueMessageCodec(objectMapper);
+
+    @Test
+    void roundTripKeepsEveryField() {
+        QueueMessage message = new QueueMessage("triage-1", "patient-1",
+                List.of("dor no peito", "falta de ar", "sudorese ção"), 58, 82.5, 1.72,
+                List.of("hipertensão", "diabetes tipo 2"), LocalDateTime.of(2024, 5, 10, 14, 30, 15, 123_456_789),
+                2, 300, LocalDateTime.of(2024, 5, 10, 14, 31));
+
+        assertThat(codec.decode(codec.encode(message))).isEqualTo(message);
+    }
+
+    @Test
+    void roundTripKeepsNullFieldsAsNull() {
+        QueueMessage message = new QueueMessage(null, null, null, null, null, null, null, null, null, null, null);
+
+        QueueMessage decoded = codec.decode(codec.encode(message));
+
+        assertThat(decoded).isEqualTo(message);
+        assertThat(decoded.getTriageId()).isNull();
+        assertThat(decoded.getPatientAge()).isNull();
+        assertThat(decoded.getPatientWeight()).isNull();
+        assertThat(decoded.getCreatedAt()).isNull();
+        assertThat(decoded.getLastRetryAt()).isNull();
+        assertThat(decoded.getSymptoms()).isEmpty();
+        assertThat(decoded.getPriority()).isEqualTo(3);
+    }
+
+    @Test
+    void roundTripWithOnlySomeFieldsPresent() {
+        QueueMessage message = QueueMessage.builder()
+                .triageId("triage-2")
+                .symptoms(List.of("febre"))
+                .patientHeight(1.10)
+                .lastRetryAt(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .build();
+
+        assertThat(codec.decode(codec.encode(message))).isEqualTo(message);
+    }
+
+    @Test
+    void payloadStartsWithVersionByte() {
+        String payload = codec.encode(QueueMessage.builder().triageId("triage-3").build());
+
+        byte[] bytes = Base64.getDecoder().decode(payload);
+        assertThat(bytes[0]).isEqualTo(BinaryQueueMessageCodec.VERSION);
+        assertThat(payload).startsWith("A");
+        assertThat(BinaryQueueMessageCodec.isBinary(payload)).isTrue();
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] bytes = Base64.getDecoder().decode(codec.encode(QueueMessage.builder().triageId("triage-4").build()));
+        bytes[0] = 2;
+        String payload = Base64.getEncoder().withoutPadding().encodeToString(bytes);
+
+        assertThatThrownBy(() -> codec.decode(payload))
+                .isInstanceOf(CodecException.class)
+                .hasMessageContaining("Versão de mensagem binária não suportada: 2");
+    }
+
+    @Test
+    void rejectsTruncatedPayload() {
+        String payload = codec.encode(QueueMessage.builder().triageId("triage-5").patientId("patient-5").build());
+
+        assertThatThrownBy(() -> codec.decode(payload.substring(0, payload.length() - 4)))
+                .isInstanceOf(CodecException.class);
+    }
+
+    @Test
+    void stillReadsJsonPayloads() {
+        QueueMessage message = QueueMessage.builder()
+                .triageId("triage-6")
+                .symptoms(List.of("tosse"))
+                .createdAt(LocalDateTime.of(2024, 5, 10, 14, 30))
+                .build();
+
+        String json = new JsonQueueMessageCodec(objectMapper).encode(message);
+
+        assertThat(BinaryQueueMessageCodec.isBinary(json)).isFalse();
+        assertThat(codec.decode(json)).isEqualTo(message);
+    }
+}
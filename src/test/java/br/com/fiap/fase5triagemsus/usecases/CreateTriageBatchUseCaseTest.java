@@ -0,0 +1,149 @@
+package br.com.fiap.fase5triagemsus.usecases;
+
+import br.com.fiap.fase5triagemsus.domain.entities.Patient;
+import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.repositories.PatientRepository;
+import br.com.fiap.fase5triagemsus.domain.repositories.TriageRepository;
+import br.com.fiap.fase5triagemsus.domain.valueobjects.QueueMessage;
+import br.com.fiap.fase5triagemsus.infrastructure.config.properties.BusinessProperties;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.QueueService;
+import br.com.fiap.fase5triagemsus.infrastructure.services.queue.RedisQueueService.QueueFullException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CreateTriageBatchUseCaseTest {
+
+    private final TriageRepository triageRepository = mock(TriageRepository.class);
+    private final PatientRepository patientRepository = mock(PatientRepository.class);
+    private final QueueService queueService = mock(QueueService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final TransactionStatus transaction = mock(TransactionStatus.class);
+    private final BusinessProperties businessProperties = new BusinessProperties();
+
+    private final CreateTriageBatchUseCase useCase = new CreateTriageBatchUseCase(triageRepository,
+            patientRepository, queueService, businessProperties, new TransactionTemplate(transactionManager));
+
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        patient = Patient.create("Maria Silva", "52998224725", LocalDate.now().minusYears(40),
+                "F", "11999999999", "maria@example.com");
+        when(patientRepository.findAllById(any())).thenReturn(List.of(patient));
+        when(triageRepository.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+    }
+
+    @Test
+    void insertsAndEnqueuesInOneTransaction() {
+        List<CreateTriageBatchUseCase.BatchItemResult> results = useCase.execute(List.of(entry(0), entry(1)));
+
+        assertThat(results).extracting(CreateTriageBatchUseCase.BatchItemResult::accepted).containsExactly(true, true);
+        assertThat(results).allSatisfy(result -> assertThat(result.triageId()).isNotNull());
+
+        InOrder order = inOrder(transactionManager, triageRepository, queueService);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(triageRepository).insertAll(anyList());
+        order.verify(queueService).sendBatch(anyList());
+        order.verify(transactionManager).commit(transaction);
+    }
+
+    @Test
+    void enqueuedMessagesCarryTheInsertedTriageIds() {
+        List<CreateTriageBatchUseCase.BatchItemResult> results = useCase.execute(List.of(entry(0), entry(1)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<QueueMessage>> sent = ArgumentCaptor.forClass(List.class);
+        verify(queueService).sendBatch(sent.capture());
+        assertThat(sent.getValue()).extracting(QueueMessage::getTriageId)
+                .containsExactlyElementsOf(results.stream().map(CreateTriageBatchUseCase.BatchItemResult::triageId).toList());
+    }
+
+    @Test
+    void fullQueueRollsBackTheInsertAndFailsEveryItemWithoutId() {
+        doThrow(new QueueFullException("cheia")).when(queueService).sendBatch(anyList());
+
+        List<CreateTriageBatchUseCase.BatchItemResult> results = useCase.execute(List.of(entry(0), entry(1)));
+
+        verify(transactionManager).rollback(transaction);
+        verify(transactionManager, never()).commit(any());
+        assertThat(results).allSatisfy(result -> {
+            assertThat(result.accepted()).isFalse();
+            assertThat(result.triageId()).isNull();
+            assertThat(result.error()).contains("Fila de triagens cheia");
+        });
+    }
+
+    @Test
+    void enqueueFailureRollsBackTheInsert() {
+        doThrow(new IllegalStateException("redis fora")).when(queueService).sendBatch(anyList());
+
+        List<CreateTriageBatchUseCase.BatchItemResult> results = useCase.execute(List.of(entry(0)));
+
+        verify(transactionManager).rollback(transaction);
+        assertThat(results).singleElement().satisfies(result -> {
+            assertThat(result.accepted()).isFalse();
+            assertThat(result.triageId()).isNull();
+        });
+    }
+
+    @Test
+    void insertFailureNeverEnqueues() {
+        when(triageRepository.insertAll(anyList())).thenThrow(new IllegalStateException("banco fora"));
+
+        List<CreateTriageBatchUseCase.BatchItemResult> results = useCase.execute(List.of(entry(0)));
+
+        verifyNoInteractions(queueService);
+        assertThat(results).singleElement().satisfies(result -> assertThat(result.accepted()).isFalse());
+    }
+
+    @Test
+    void unknownPatientFailsOnlyItsItem() {
+        CreateTriageBatchUseCase.BatchEntry unknown = new CreateTriageBatchUseCase.BatchEntry(1,
+                new CreateTriageUseCase.CreateTriageCommand(UUID.randomUUID().toString(), symptoms()));
+
+        List<CreateTriageBatchUseCase.BatchItemResult> results = useCase.execute(List.of(entry(0), unknown));
+
+        assertThat(results).extracting(CreateTriageBatchUseCase.BatchItemResult::accepted).containsExactly(true, false);
+        assertThat(results.get(1).error()).contains("Paciente não encontrado");
+    }
+
+    @Test
+    void rejectsBatchAboveConfiguredMaximum() {
+        businessProperties.setMaxTriagesPerBatch(1);
+
+        assertThatThrownBy(() -> useCase.execute(List.of(entry(0), entry(1))))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(triageRepository, queueService);
+    }
+
+    private CreateTriageBatchUseCase.BatchEntry entry(int index) {
+        return new CreateTriageBatchUseCase.BatchEntry(index,
+                new CreateTriageUseCase.CreateTriageCommand(patient.getId().getValue(), symptoms()));
+    }
+
+    private static List<CreateTriageUseCase.SymptomDto> symptoms() {
+        return List.of(new CreateTriageUseCase.SymptomDto("tosse seca", 5, null));
+    }
+}
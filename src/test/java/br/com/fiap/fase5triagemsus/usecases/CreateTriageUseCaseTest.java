@@ -0,0 +1,68 @@
+package br.com.fiap.fase5triagemsus.usecases;
+
+import br.com.fiap.fase5triagemsus.domain.entities.Patient;
+import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.domain.valueobjects.Symptom;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CreateTriageUseCaseTest {
+
+    @Test
+    void alertKeywordWithSevereIntensityGoesToEmergencyLane() {
+        assertThat(initialPriority(40, Symptom.of("dor no peito", 9))).isEqualTo(PriorityLevel.EMERGENCY);
+    }
+
+    @Test
+    void alertKeywordAloneGoesToVeryUrgentLane() {
+        assertThat(initialPriority(40, Symptom.of("febre alta", 5))).isEqualTo(PriorityLevel.VERY_URGENT);
+    }
+
+    @Test
+    void severeSymptomInElderlyOrChildGoesToVeryUrgentLane() {
+        assertThat(initialPriority(80, Symptom.of("dor nas costas", 8))).isEqualTo(PriorityLevel.VERY_URGENT);
+        assertThat(initialPriority(5, Symptom.of("dor de ouvido", 8))).isEqualTo(PriorityLevel.VERY_URGENT);
+    }
+
+    @Test
+    void severeSymptomInAdultOrManyModerateGoesToUrgentLane() {
+        assertThat(initialPriority(40, Symptom.of("dor nas costas", 8))).isEqualTo(PriorityLevel.URGENT);
+        assertThat(initialPriority(40, Symptom.of("tosse", 5), Symptom.of("coriza", 4), Symptom.of("dor no corpo", 6)))
+                .isEqualTo(PriorityLevel.URGENT);
+    }
+
+    @Test
+    void moderateSymptomGoesToLessUrgentLane() {
+        assertThat(initialPriority(40, Symptom.of("tosse", 5), Symptom.of("coriza", 2)))
+                .isEqualTo(PriorityLevel.LESS_URGENT);
+    }
+
+    @Test
+    void onlyMildSymptomsGoToNonUrgentLane() {
+        assertThat(initialPriority(40, Symptom.of("coriza", 2))).isEqualTo(PriorityLevel.NON_URGENT);
+    }
+
+    @Test
+    void queueMessageCarriesTheInitialPriority() {
+        Patient patient = patient(40);
+        Triage triage = Triage.create(patient.getId(), List.of(Symptom.of("tosse", 5)));
+
+        assertThat(CreateTriageUseCase.toQueueMessage(triage, patient).getPriorityLevel())
+                .isEqualTo(PriorityLevel.LESS_URGENT);
+    }
+
+    private static PriorityLevel initialPriority(int age, Symptom... symptoms) {
+        Patient patient = patient(age);
+        return CreateTriageUseCase.initialPriority(Triage.create(patient.getId(), List.of(symptoms)), patient);
+    }
+
+    private static Patient patient(int age) {
+        return Patient.create("Maria Silva", "52998224725", LocalDate.now().minusYears(age).minusDays(1),
+                "F", "11999999999", "maria@example.com");
+    }
+}
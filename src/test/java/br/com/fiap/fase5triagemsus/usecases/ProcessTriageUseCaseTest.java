@@ -0,0 +1,127 @@
+package br.com.fiap.fase5triagemsus.usecases;
+
+import br.com.fiap.fase5triagemsus.domain.entities.Patient;
+import br.com.fiap.fase5triagemsus.domain.entities.Triage;
+import br.com.fiap.fase5triagemsus.domain.enums.PriorityLevel;
+import br.com.fiap.fase5triagemsus.domain.enums.TriageStatus;
+import br.com.fiap.fase5triagemsus.domain.repositories.PatientRepository;
+import br.com.fiap.fase5triagemsus.domain.repositories.TriageRepository;
+import br.com.fiap.fase5triagemsus.domain.services.AITriageService;
+import br.com.fiap.fase5triagemsus.domain.valueobjects.QueueMessage;
+import br.com.fiap.fase5triagemsus.domain.valueobjects.Symptom;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.concurrency.AdaptiveConcurrencyLimiter.LimitExceededException;
+import br.com.fiap.fase5triagemsus.infrastructure.ai.ratelimit.DistributedRateLimiter.QuotaExceededException;
+import br.com.fiap.fase5triagemsus.infrastructure.config.QueueConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProcessTriageUseCaseTest {
+
+    private final TriageRepository triageRepository = mock(TriageRepository.class);
+    private final PatientRepository patientRepository = mock(PatientRepository.class);
+    private final AITriageService aiTriageService = mock(AITriageService.class);
+    private final ProcessTriageUseCase useCase = new ProcessTriageUseCase(triageRepository, patientRepository,
+            aiTriageService, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+    private Patient patient;
+    private Triage triage;
+
+    @BeforeEach
+    void setUp() {
+        patient = Patient.create("Maria Silva", "52998224725", LocalDate.now().minusYears(80),
+                "F", "11999999999", "maria@example.com");
+        triage = Triage.create(patient.getId(), List.of(Symptom.of("dor nas costas", 8)));
+        when(triageRepository.findById(triage.getId())).thenReturn(Optional.of(triage));
+        when(triageRepository.save(any(Triage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(patientRepository.findById(patient.getId())).thenReturn(Optional.of(patient));
+    }
+
+    @Test
+    void failureBeforeLastDeliveryGoesBackToRetry() {
+        when(aiTriageService.analyzeTriageSituation(any(), any())).thenThrow(new QuotaExceededException("sem cota"));
+
+        ProcessTriageUseCase.ProcessingResult result = useCase.execute(message(0));
+
+        assertThat(result.status()).isEqualTo(ProcessTriageUseCase.ProcessingStatus.FAILED);
+        assertThat(result.triage().getStatus()).isEqualTo(TriageStatus.FAILED);
+    }
+
+    @Test
+    void failureOnLastDeliveryFallsBackToSymptomPriority() {
+        when(aiTriageService.analyzeTriageSituation(any(), any())).thenThrow(new QuotaExceededException("sem cota"));
+
+        ProcessTriageUseCase.ProcessingResult result = useCase.execute(message(QueueConfig.DEFAULT_MAX_RETRIES));
+
+        assertThat(result.status()).isEqualTo(ProcessTriageUseCase.ProcessingStatus.SUCCESS);
+        assertThat(result.triage().getStatus()).isEqualTo(TriageStatus.COMPLETED);
+        assertThat(result.triage().getPriority()).isEqualTo(PriorityLevel.VERY_URGENT);
+    }
+
+    @Test
+    void asyncFailureBeforeLastDeliveryGoesBackToRetry() {
+        when(aiTriageService.analyzeTriageSituationAsync(any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new QuotaExceededException("sem cota")));
+
+        ProcessTriageUseCase.ProcessingResult result = useCase.executeAsync(message(1), Runnable::run).join();
+
+        assertThat(result.status()).isEqualTo(ProcessTriageUseCase.ProcessingStatus.FAILED);
+    }
+
+    @Test
+    void asyncFailureOnLastDeliveryFallsBackToSymptomPriority() {
+        when(aiTriageService.analyzeTriageSituationAsync(any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new QuotaExceededException("sem cota")));
+
+        ProcessTriageUseCase.ProcessingResult result =
+                useCase.executeAsync(message(QueueConfig.DEFAULT_MAX_RETRIES), Runnable::run).join();
+
+        assertThat(result.status()).isEqualTo(ProcessTriageUseCase.ProcessingStatus.SUCCESS);
+        assertThat(result.triage().getPriority()).isEqualTo(PriorityLevel.VERY_URGENT);
+        assertThat(result.triage().getAiRecommendation()).contains("sem cota");
+    }
+
+    @Test
+    void concurrencyRejectionBeforeLastDeliveryGoesBackToRetry() {
+        when(aiTriageService.analyzeTriageSituationAsync(any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new LimitExceededException("sem vaga")));
+
+        ProcessTriageUseCase.ProcessingResult result = useCase.executeAsync(message(2), Runnable::run).join();
+
+        assertThat(result.status()).isEqualTo(ProcessTriageUseCase.ProcessingStatus.FAILED);
+    }
+
+    @Test
+    void concurrencyRejectionOnLastDeliveryFallsBackToSymptomPriority() {
+        when(aiTriageService.analyzeTriageSituationAsync(any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new LimitExceededException("sem vaga")));
+
+        ProcessTriageUseCase.ProcessingResult result =
+                useCase.executeAsync(message(QueueConfig.DEFAULT_MAX_RETRIES), Runnable::run).join();
+
+        assertThat(result.status()).isEqualTo(ProcessTriageUseCase.ProcessingStatus.SUCCESS);
+        assertThat(result.triage().getPriority()).isEqualTo(PriorityLevel.VERY_URGENT);
+    }
+
+    private QueueMessage message(int retryCount) {
+        return QueueMessage.builder()
+                .triageId(triage.getId().getValue())
+                .patientId(patient.getId().getValue())
+                .symptoms(List.of("dor nas costas"))
+                .createdAt(LocalDateTime.now())
+                .retryCount(retryCount)
+                .build();
+    }
+}